@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Runs the example test suite serially and in parallel and prints the wall time of each.
+# Usage: scripts/timing-report.sh [runs]
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+runs="${1:-3}"
+
+mvn -B -q test-compile
+
+time_suite() {
+  local start end
+  start=$(date +%s%N)
+  mvn -B -q surefire:test "$@" > /dev/null
+  end=$(date +%s%N)
+  echo $(( (end - start) / 1000000 ))
+}
+
+serial=0
+parallel=0
+for i in $(seq 1 "$runs"); do
+  serial=$(( serial + $(time_suite -Dsurefire.forkCount=1 -Djunit.jupiter.execution.parallel.enabled=false) ))
+  parallel=$(( parallel + $(time_suite) ))
+done
+
+serial=$(( serial / runs ))
+parallel=$(( parallel / runs ))
+
+echo "Cores:    $(getconf _NPROCESSORS_ONLN)"
+echo "Runs:     $runs"
+echo "Serial:   ${serial} ms"
+echo "Parallel: ${parallel} ms"
+awk -v s="$serial" -v p="$parallel" 'BEGIN { printf "Speed-up: %.2fx\n", s / p }'
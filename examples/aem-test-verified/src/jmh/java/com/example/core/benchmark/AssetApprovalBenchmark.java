@@ -0,0 +1,78 @@
+package com.example.core.benchmark;
+
+import com.adobe.granite.workflow.WorkflowException;
+import com.adobe.granite.workflow.WorkflowSession;
+import com.adobe.granite.workflow.exec.WorkItem;
+import com.adobe.granite.workflow.exec.WorkflowData;
+import com.adobe.granite.workflow.metadata.MetaDataMap;
+import com.adobe.granite.workflow.metadata.SimpleMetaDataMap;
+import com.example.core.workflow.AssetApprovalProcess;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cost of a single-asset {@link AssetApprovalProcess#execute} call that changes the
+ * asset's status, including the commit. Invocations alternate between approving and
+ * rejecting the asset, since a call that would not change the status returns without
+ * writing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AssetApprovalBenchmark {
+
+    private static final String ASSET_PATH = "/content/dam/benchmark/image.jpg";
+
+    private BenchmarkContext context;
+    private AssetApprovalProcess process;
+    private WorkItem workItem;
+    private WorkflowSession workflowSession;
+    private MetaDataMap approve;
+    private MetaDataMap reject;
+    private boolean approved;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext();
+        context.start();
+        context.create().resource(ASSET_PATH, "jcr:primaryType", "dam:Asset");
+        context.create().resource(ASSET_PATH + "/jcr:content/metadata", "jcr:primaryType", "nt:unstructured");
+
+        WorkflowData workflowData = mock(WorkflowData.class);
+        when(workflowData.getPayload()).thenReturn(ASSET_PATH);
+        workItem = mock(WorkItem.class);
+        when(workItem.getWorkflowData()).thenReturn(workflowData);
+        workflowSession = mock(WorkflowSession.class);
+        when(workflowSession.adaptTo(ResourceResolver.class)).thenReturn(context.resourceResolver());
+
+        approve = new SimpleMetaDataMap();
+        approve.put("PROCESS_ARGS", "action=approve");
+        reject = new SimpleMetaDataMap();
+        reject.put("PROCESS_ARGS", "action=reject");
+        process = new AssetApprovalProcess();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void execute() throws WorkflowException {
+        process.execute(workItem, workflowSession, approved ? reject : approve);
+        approved = !approved;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.core.benchmark;
+
+import io.wcm.testing.mock.aem.context.AemContextImpl;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+
+/**
+ * AemContext that can be started and stopped outside of JUnit, so a JMH
+ * {@code @State} can boot it once per trial.
+ */
+final class BenchmarkContext extends AemContextImpl {
+
+    BenchmarkContext() {
+        setResourceResolverType(ResourceResolverType.RESOURCERESOLVER_MOCK);
+    }
+
+    void start() {
+        setUp();
+    }
+
+    void stop() {
+        tearDown();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.core.benchmark;
+
+import com.example.core.metrics.MetricsRegistry;
+import com.example.core.services.HelloService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link HelloService#getMessage(String)}, without and with a
+ * {@link MetricsRegistry} bound; the difference is the cost of the instrumentation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class HelloServiceBenchmark {
+
+    private final HelloService service = new HelloService();
+
+    private BenchmarkContext context;
+    private HelloService instrumented;
+
+    public String name = "Alice";
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext();
+        context.start();
+        context.registerInjectActivateService(new MetricsRegistry());
+        instrumented = context.registerInjectActivateService(new HelloService());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public String getMessage() {
+        return service.getMessage(name);
+    }
+
+    @Benchmark
+    public String getMessageInstrumented() {
+        return instrumented.getMessage(name);
+    }
+
+    @Benchmark
+    public String getDefaultMessage() {
+        return service.getMessage(null);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.core.benchmark;
+
+import com.example.core.models.HeroComponent;
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.models.factory.ModelFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sling Model adaptation cost for the example models, using the JUnit fixtures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ModelAdaptationBenchmark {
+
+    @Param({"10", "100"})
+    public int navigationItems;
+
+    private BenchmarkContext context;
+    private ModelFactory modelFactory;
+    private Resource hero;
+    private Resource navigation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext();
+        context.start();
+        context.addModelsForClasses(HeroComponent.class, NavigationModel.class, NavigationItem.class);
+        context.load().json("/com/example/core/models/HeroComponentTest.json", "/content/mysite/home");
+
+        navigation = context.create().resource("/content/mysite/navigation", "title", "Main Navigation");
+        Resource items = context.create().resource(navigation, "items");
+        for (int i = 0; i < navigationItems; i++) {
+            context.create().resource(items, "item" + i, "label", "Item " + i, "url", "/content/mysite/item" + i);
+        }
+
+        hero = context.resourceResolver().getResource("/content/mysite/home/hero");
+        modelFactory = context.getService(ModelFactory.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public HeroComponent heroAdaptTo() {
+        return hero.adaptTo(HeroComponent.class);
+    }
+
+    @Benchmark
+    public HeroComponent heroCreateModel() {
+        return modelFactory.createModel(hero, HeroComponent.class);
+    }
+
+    @Benchmark
+    public NavigationModel navigationCreateModel() {
+        return modelFactory.createModel(navigation, NavigationModel.class);
+    }
+
+    @Benchmark
+    public int navigationAllItems() {
+        return modelFactory.createModel(navigation, NavigationModel.class).getItems().size();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.core.benchmark;
+
+import com.example.core.export.JsonExport;
+import com.example.core.models.HeroComponent;
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.sling.api.resource.Resource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON export of the navigation model: the streaming writer against Jackson databind
+ * (what the Sling Models exporter does) and a hand-built tree. Each invocation adapts a
+ * fresh model so lazy item adaptation is part of the measured cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NavigationExportBenchmark {
+
+    @Param({"10", "1000"})
+    public int navigationItems;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private BenchmarkContext context;
+    private Resource navigation;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new BenchmarkContext();
+        context.start();
+        context.addModelsForClasses(HeroComponent.class, NavigationModel.class, NavigationItem.class);
+
+        navigation = context.create().resource("/content/mysite/navigation", "title", "Main Navigation");
+        Resource items = context.create().resource(navigation, "items");
+        for (int i = 0; i < navigationItems; i++) {
+            context.create().resource(items, "item" + i, "label", "Item " + i, "url", "/content/mysite/item" + i);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public int streaming() throws IOException {
+        StringWriter out = new StringWriter();
+        JsonExport.write(navigation.adaptTo(NavigationModel.class), out);
+        return out.getBuffer().length();
+    }
+
+    @Benchmark
+    public int jacksonDatabind() throws IOException {
+        return mapper.writeValueAsString(navigation.adaptTo(NavigationModel.class)).length();
+    }
+
+    @Benchmark
+    public int jacksonTree() throws IOException {
+        NavigationModel model = navigation.adaptTo(NavigationModel.class);
+        ObjectNode root = mapper.createObjectNode();
+        root.put(":type", model.getExportedType());
+        root.put("title", model.getTitle());
+        ArrayNode items = root.putArray("items");
+        for (NavigationItem item : model.getItems()) {
+            ObjectNode node = items.addObject();
+            node.put("label", item.getLabel());
+            node.put("url", item.getUrl());
+            node.put("link", item.getLink());
+        }
+        return mapper.writeValueAsString(root).length();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.core.benchmark;
+
+import com.example.core.models.HeroComponent;
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import com.example.core.testing.SharedAemContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-test setup cost: booting a fresh AemContext and loading a fixture, against
+ * resetting the thread's {@link SharedAemContext} and loading the same fixture.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SharedAemContextBenchmark {
+
+    private static final String FIXTURE = "/com/example/core/models/HeroComponentTest.json";
+
+    private SharedAemContext shared;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shared = SharedAemContext.get();
+    }
+
+    @Benchmark
+    public void freshContext() {
+        BenchmarkContext fresh = new BenchmarkContext();
+        fresh.start();
+        try {
+            fresh.addModelsForClasses(HeroComponent.class, NavigationModel.class, NavigationItem.class);
+            fresh.load().json(FIXTURE, "/content/mysite/home");
+        } finally {
+            fresh.stop();
+        }
+    }
+
+    @Benchmark
+    public void sharedReset() {
+        shared.reset();
+        shared.load().json(FIXTURE, "/content/mysite/home");
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.core.audit;
+
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only audit trail of approval status changes. Entries are buffered in a bounded
+ * queue and written in batches by a background thread, either to the repository or to
+ * a local file. When the buffer is full the recording thread flushes a batch itself,
+ * so producers slow down to the sink's pace, but for at most {@code maxBlockMillis}: it
+ * records from workflow threads that hold asset locks, so a sink outage must not stall
+ * approvals. Past that, or as soon as the sink fails, the entry goes to the overflow
+ * sink (the log file for the repository target) or is dropped with a warning. A batch
+ * that fails to write is kept and retried first on the next flush.
+ */
+@Component(service = ApprovalAuditLog.class)
+@Designate(ocd = ApprovalAuditLog.Config.class)
+public class ApprovalAuditLog {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ApprovalAuditLog.class);
+
+    static final int DEFAULT_CAPACITY = 10_000;
+    static final int DEFAULT_BATCH_SIZE = 500;
+    static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    static final long DEFAULT_MAX_BLOCK_MILLIS = 200;
+
+    @ObjectClassDefinition(name = "Approval Audit Log")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Target", description = "Where batches are written: 'repository' or 'file'")
+        String target() default "repository";
+
+        @AttributeDefinition(name = "Repository Path", description = "Root of the audit nodes for the repository target")
+        String repositoryPath() default "/var/audit/approvals";
+
+        @AttributeDefinition(name = "File", description = "Append-only log file for the file target")
+        String file() default "logs/approval-audit.log";
+
+        @AttributeDefinition(name = "Subservice", description = "Service user mapping used to write audit nodes")
+        String subservice() default "approval-audit-writer";
+
+        @AttributeDefinition(name = "Capacity", description = "Maximum number of buffered entries")
+        int capacity() default DEFAULT_CAPACITY;
+
+        @AttributeDefinition(name = "Batch Size", description = "Maximum number of entries written per batch")
+        int batchSize() default DEFAULT_BATCH_SIZE;
+
+        @AttributeDefinition(name = "Flush Interval", description = "Maximum time in milliseconds an entry stays buffered")
+        long flushIntervalMillis() default DEFAULT_FLUSH_INTERVAL_MILLIS;
+
+        @AttributeDefinition(name = "Max Block",
+            description = "Maximum time in milliseconds a recording thread flushes while the buffer is full before "
+                + "the entry goes to the overflow file (repository target) or is dropped")
+        long maxBlockMillis() default DEFAULT_MAX_BLOCK_MILLIS;
+    }
+
+    private final AuditSink sink;
+    private final AuditSink overflowSink;
+    private final BlockingQueue<AuditEntry> buffer;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long maxBlockNanos;
+    private final Lock writeLock = new ReentrantLock();
+    private final List<AuditEntry> unwritten = new ArrayList<>();
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong callerFlushes = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    @Activate
+    public ApprovalAuditLog(@Reference ResourceResolverFactory resolverFactory, Config config) {
+        this("file".equalsIgnoreCase(config.target())
+                ? new FileAuditSink(Paths.get(config.file()))
+                : new RepositoryAuditSink(resolverFactory, config.subservice(), config.repositoryPath()),
+            "file".equalsIgnoreCase(config.target()) ? null : new FileAuditSink(Paths.get(config.file())),
+            config.capacity(), config.batchSize(), config.flushIntervalMillis(), config.maxBlockMillis());
+    }
+
+    /**
+     * @param overflowSink receives single entries that cannot be buffered in time; {@code null} drops them
+     */
+    ApprovalAuditLog(AuditSink sink, AuditSink overflowSink, int capacity, int batchSize, long flushIntervalMillis,
+            long maxBlockMillis) {
+        this.sink = sink;
+        this.overflowSink = overflowSink;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushIntervalMillis = Math.max(1, flushIntervalMillis);
+        this.maxBlockNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxBlockMillis));
+        this.flusher = new Thread(this::run, "approval-audit-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Buffers an entry. While the buffer is full the calling thread flushes batches
+     * itself, for at most the configured block time and only while the sink accepts
+     * them; otherwise the entry is handed to the overflow sink or dropped.
+     */
+    public void record(AuditEntry entry) {
+        recorded.incrementAndGet();
+        long deadline = System.nanoTime() + maxBlockNanos;
+        while (!buffer.offer(entry)) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                overflow(entry, "buffer full");
+                return;
+            }
+            callerFlushes.incrementAndGet();
+            Boolean flushed = tryFlushBatch(remaining);
+            if (Boolean.FALSE.equals(flushed)) {
+                overflow(entry, "sink failing");
+                return;
+            }
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(flusher);
+        }
+    }
+
+    /**
+     * Writes everything buffered so far.
+     *
+     * @return {@code true} if all entries were written
+     */
+    public boolean flush() {
+        while (!buffer.isEmpty() || hasUnwritten()) {
+            if (!flushBatch()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        running = false;
+        flusher.interrupt();
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!flush()) {
+            LOG.error("Audit log closed with {} entries not written", getPending());
+        }
+    }
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return number of times a recording thread had to flush because the buffer was full
+     */
+    public long getCallerFlushes() {
+        return callerFlushes.get();
+    }
+
+    public long getPending() {
+        return recorded.get() - written.get() - overflowed.get() - dropped.get();
+    }
+
+    /**
+     * @return number of entries written to the overflow sink instead of the buffer
+     */
+    public long getOverflowed() {
+        return overflowed.get();
+    }
+
+    /**
+     * @return number of entries lost because neither the buffer nor the overflow sink took them
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Flusher loop: wakes up every flush interval, or earlier once a full batch is
+     * buffered, and writes until the buffer is empty. Entries are only ever removed from
+     * the buffer under the write lock, so batches are written in recording order.
+     */
+    private void run() {
+        while (running) {
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis));
+            try {
+                while (running && (!buffer.isEmpty() || hasUnwritten())) {
+                    if (!flushBatch()) {
+                        pauseAfterFailure();
+                        break;
+                    }
+                }
+            } catch (RuntimeException e) {
+                LOG.error("Unexpected error flushing audit log", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the retained failed batch, or else up to one batch from the buffer.
+     *
+     * @return {@code false} if the sink rejected the batch
+     */
+    private boolean flushBatch() {
+        writeLock.lock();
+        try {
+            return writeBatch();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * As {@link #flushBatch()}, but gives up if another thread holds the write lock for
+     * longer than the given time.
+     *
+     * @return whether the batch was written, or {@code null} if the lock was not acquired in time
+     */
+    private Boolean tryFlushBatch(long timeoutNanos) {
+        try {
+            if (!writeLock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Boolean.FALSE;
+        }
+        try {
+            return writeBatch();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private boolean writeBatch() {
+        if (unwritten.size() < batchSize) {
+            buffer.drainTo(unwritten, batchSize - unwritten.size());
+        }
+        if (unwritten.isEmpty()) {
+            return true;
+        }
+        try {
+            sink.write(unwritten);
+            written.addAndGet(unwritten.size());
+            unwritten.clear();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to write {} audit entries, will retry: {}", unwritten.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void overflow(AuditEntry entry, String reason) {
+        if (overflowSink != null) {
+            try {
+                overflowSink.write(Collections.singletonList(entry));
+                overflowed.incrementAndGet();
+                return;
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Failed to write audit entry to overflow sink: {}", e.getMessage());
+            }
+        }
+        dropped.incrementAndGet();
+        LOG.warn("Audit entry dropped ({}): {}", reason, entry);
+    }
+
+    private void pauseAfterFailure() {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(Math.min(flushIntervalMillis, 100)));
+    }
+
+    private boolean hasUnwritten() {
+        writeLock.lock();
+        try {
+            return !unwritten.isEmpty();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+}
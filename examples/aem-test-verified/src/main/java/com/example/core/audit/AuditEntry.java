@@ -0,0 +1,87 @@
+package com.example.core.audit;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * One approval status change: which asset, who changed it, when, and from which
+ * status to which.
+ */
+public final class AuditEntry {
+
+    private final String assetPath;
+    private final String userId;
+    private final long timestamp;
+    private final String oldStatus;
+    private final String newStatus;
+
+    public AuditEntry(String assetPath, String userId, long timestamp, String oldStatus, String newStatus) {
+        this.assetPath = Objects.requireNonNull(assetPath, "assetPath");
+        this.userId = userId;
+        this.timestamp = timestamp;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+    }
+
+    public String getAssetPath() {
+        return assetPath;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getOldStatus() {
+        return oldStatus;
+    }
+
+    public String getNewStatus() {
+        return newStatus;
+    }
+
+    /**
+     * @return the entry as a single-line JSON object
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"asset\":");
+        appendString(json, assetPath);
+        json.append(",\"user\":");
+        appendString(json, userId);
+        json.append(",\"time\":");
+        appendString(json, Instant.ofEpochMilli(timestamp).toString());
+        json.append(",\"from\":");
+        appendString(json, oldStatus);
+        json.append(",\"to\":");
+        appendString(json, newStatus);
+        return json.append('}').toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.core.audit;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of flushed audit batches. A batch is written as a whole or not at all;
+ * on failure it is retried with the next flush.
+ */
+public interface AuditSink {
+
+    void write(List<AuditEntry> entries) throws IOException;
+}
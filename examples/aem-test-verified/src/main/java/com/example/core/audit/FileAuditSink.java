@@ -0,0 +1,39 @@
+package com.example.core.audit;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends audit entries to a local file, one JSON object per line.
+ */
+public class FileAuditSink implements AuditSink {
+
+    private final Path file;
+
+    public FileAuditSink(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public void write(List<AuditEntry> entries) throws IOException {
+        List<String> lines = new ArrayList<>(entries.size());
+        for (AuditEntry entry : entries) {
+            lines.add(entry.toJson());
+        }
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.core.audit;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.ResourceUtil;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores each flushed batch as a single node below a folder for the day it was recorded,
+ * e.g. {@code /var/audit/approvals/2024/05/31/1717150000000-1}. The entries are kept in
+ * parallel multi-value properties {@code assetPath}, {@code userId}, {@code timestamp}
+ * (date), {@code oldStatus} and {@code newStatus}, where a missing user or previous
+ * status is an empty string, plus an {@code entryCount}. A batch costs one node and one
+ * commit however many approvals it records, so the trail does not double the
+ * repository writes of the approvals themselves.
+ */
+public class RepositoryAuditSink implements AuditSink {
+
+    private static final Map<String, Object> FOLDER = Collections.singletonMap("jcr:primaryType", "sling:Folder");
+
+    private final ResourceResolverFactory resolverFactory;
+    private final Map<String, Object> authInfo;
+    private final String rootPath;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public RepositoryAuditSink(ResourceResolverFactory resolverFactory, String subservice, String rootPath) {
+        this.resolverFactory = resolverFactory;
+        this.authInfo = Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, subservice);
+        this.rootPath = rootPath;
+    }
+
+    @Override
+    public void write(List<AuditEntry> entries) throws IOException {
+        // a batch spanning midnight becomes one node per day
+        Map<String, List<AuditEntry>> days = new LinkedHashMap<>();
+        for (AuditEntry entry : entries) {
+            days.computeIfAbsent(folderPath(entry.getTimestamp()), day -> new ArrayList<>()).add(entry);
+        }
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(authInfo)) {
+            for (Map.Entry<String, List<AuditEntry>> day : days.entrySet()) {
+                Resource folder = ResourceUtil.getOrCreateResource(resolver, day.getKey(), FOLDER,
+                    "sling:Folder", false);
+                List<AuditEntry> batch = day.getValue();
+                resolver.create(folder, batch.get(0).getTimestamp() + "-" + sequence.incrementAndGet(),
+                    toProperties(batch));
+            }
+            resolver.commit();
+        } catch (LoginException | PersistenceException e) {
+            throw new IOException("Failed to write " + entries.size() + " audit entries below " + rootPath, e);
+        }
+    }
+
+    private String folderPath(long timestamp) {
+        LocalDate day = Instant.ofEpochMilli(timestamp).atOffset(ZoneOffset.UTC).toLocalDate();
+        return String.format("%s/%04d/%02d/%02d", rootPath, day.getYear(), day.getMonthValue(), day.getDayOfMonth());
+    }
+
+    private static Map<String, Object> toProperties(List<AuditEntry> batch) {
+        int size = batch.size();
+        String[] assetPaths = new String[size];
+        String[] userIds = new String[size];
+        Calendar[] timestamps = new Calendar[size];
+        String[] oldStatuses = new String[size];
+        String[] newStatuses = new String[size];
+        for (int i = 0; i < size; i++) {
+            AuditEntry entry = batch.get(i);
+            Calendar timestamp = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+            timestamp.setTimeInMillis(entry.getTimestamp());
+            assetPaths[i] = entry.getAssetPath();
+            userIds[i] = entry.getUserId() != null ? entry.getUserId() : "";
+            timestamps[i] = timestamp;
+            oldStatuses[i] = entry.getOldStatus() != null ? entry.getOldStatus() : "";
+            newStatuses[i] = entry.getNewStatus();
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("jcr:primaryType", "nt:unstructured");
+        properties.put("entryCount", (long) size);
+        properties.put("assetPath", assetPaths);
+        properties.put("userId", userIds);
+        properties.put("timestamp", timestamps);
+        properties.put("oldStatus", oldStatuses);
+        properties.put("newStatus", newStatuses);
+        return properties;
+    }
+}
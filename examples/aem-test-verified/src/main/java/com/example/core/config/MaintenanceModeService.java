@@ -0,0 +1,225 @@
+package com.example.core.config;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.apache.sling.caconfig.ConfigurationResolver;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps an immutable snapshot of {@link SiteConfig#maintenanceMode()} per site root so
+ * that request-time checks never resolve configuration. The snapshot is rebuilt on
+ * activation and whenever configuration or a site root changes (including a resource
+ * within the search depth gaining {@code sling:configRef}), and published through a
+ * volatile field; readers take no locks and look up each ancestor of the path in a set.
+ */
+@Component(service = {MaintenanceModeService.class, ResourceChangeListener.class}, property = {
+    "service.description=Maintenance Mode Service",
+    ResourceChangeListener.PATHS + "=/conf",
+    ResourceChangeListener.PATHS + "=/content",
+    ResourceChangeListener.CHANGES + "=ADDED",
+    ResourceChangeListener.CHANGES + "=CHANGED",
+    ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = MaintenanceModeService.Config.class)
+public class MaintenanceModeService implements ResourceChangeListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MaintenanceModeService.class);
+
+    @ObjectClassDefinition(name = "Maintenance Mode Service")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Search Root",
+            description = "Path below which site roots (resources with sling:configRef) are discovered")
+        String searchRoot() default "/content";
+
+        @AttributeDefinition(name = "Search Depth",
+            description = "Number of levels below the search root that are scanned for site roots")
+        int searchDepth() default 2;
+
+        @AttributeDefinition(name = "Subservice",
+            description = "Service user mapping used to read content and configuration")
+        String subservice() default "site-config-reader";
+    }
+
+    private final ResourceResolverFactory resolverFactory;
+    private final ConfigurationResolver configurationResolver;
+    private final String searchRoot;
+    private final int searchDepth;
+    private final Map<String, Object> authInfo;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Activate
+    public MaintenanceModeService(@Reference ResourceResolverFactory resolverFactory,
+            @Reference ConfigurationResolver configurationResolver, Config config) {
+        this.resolverFactory = resolverFactory;
+        this.configurationResolver = configurationResolver;
+        this.searchRoot = config.searchRoot();
+        this.searchDepth = Math.max(1, config.searchDepth());
+        this.authInfo = Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, config.subservice());
+        refresh();
+    }
+
+    /**
+     * @return {@code true} if the given content path belongs to a site in maintenance mode
+     */
+    public boolean isMaintenance(String path) {
+        Set<String> roots = snapshot.maintenanceRoots;
+        if (roots.isEmpty() || path == null) {
+            return false;
+        }
+        if (roots.contains(path)) {
+            return true;
+        }
+        // selectors and extension can only follow the last segment; dots further up are part of names
+        int lastSlash = path.lastIndexOf('/');
+        int dot = path.indexOf('.', lastSlash + 1);
+        String current = dot > 0 ? path.substring(0, dot) : path;
+        while (!current.isEmpty()) {
+            if (roots.contains(current)) {
+                return true;
+            }
+            current = current.substring(0, Math.max(0, current.lastIndexOf('/')));
+        }
+        return false;
+    }
+
+    /**
+     * @return the current site root to maintenance flag snapshot
+     */
+    public Map<String, Boolean> getSnapshot() {
+        return snapshot.flags;
+    }
+
+    @Override
+    public void onChange(List<ResourceChange> changes) {
+        if (affectsSnapshot(changes)) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rebuilds the snapshot from the repository and publishes it atomically.
+     */
+    public void refresh() {
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(authInfo)) {
+            Resource root = resolver.getResource(searchRoot);
+            Map<String, Boolean> flags = new LinkedHashMap<>();
+            if (root != null) {
+                collect(root, 0, flags);
+            }
+            snapshot = new Snapshot(flags);
+            LOG.debug("Maintenance mode snapshot refreshed: {}", flags);
+        } catch (LoginException e) {
+            LOG.error("Cannot refresh maintenance mode snapshot", e);
+        }
+    }
+
+    private boolean affectsSnapshot(List<ResourceChange> changes) {
+        Map<String, Boolean> flags = snapshot.flags;
+        ResourceResolver resolver = null;
+        try {
+            for (ResourceChange change : changes) {
+                String path = change.getPath();
+                if (isBelow(path, "/conf") || flags.containsKey(path)) {
+                    return true;
+                }
+                if (change.getType() == ResourceChange.ChangeType.REMOVED) {
+                    if (flags.keySet().stream().anyMatch(root -> isBelow(root, path))) {
+                        return true;
+                    }
+                } else if (isCandidateRoot(path)) {
+                    // a new site root or a page that gained sling:configRef
+                    if (resolver == null) {
+                        resolver = resolverFactory.getServiceResourceResolver(authInfo);
+                    }
+                    Resource resource = resolver.getResource(path);
+                    if (resource != null && resource.getValueMap().containsKey(SiteConfigProvider.CONFIG_REF)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        } catch (LoginException e) {
+            LOG.error("Cannot check changed resources for site roots, refreshing", e);
+            return true;
+        } finally {
+            if (resolver != null) {
+                resolver.close();
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if a site root at the given path would be discovered by {@link #refresh()}
+     */
+    private boolean isCandidateRoot(String path) {
+        if (!isBelow(path, searchRoot) || isBelow(path, "/content/dam")) {
+            return false;
+        }
+        int depth = 0;
+        for (int i = searchRoot.length(); i < path.length(); i++) {
+            if (path.charAt(i) == '/') {
+                depth++;
+            }
+        }
+        return depth <= searchDepth;
+    }
+
+    private static boolean isBelow(String path, String ancestor) {
+        return path.equals(ancestor) || path.startsWith(ancestor + "/");
+    }
+
+    private void collect(Resource resource, int depth, Map<String, Boolean> flags) {
+        if (resource.getValueMap().containsKey(SiteConfigProvider.CONFIG_REF)) {
+            SiteConfig config = configurationResolver.get(resource).as(SiteConfig.class);
+            flags.put(resource.getPath(), config != null && config.maintenanceMode());
+            return;
+        }
+        if (depth >= searchDepth) {
+            return;
+        }
+        Iterator<Resource> children = resource.listChildren();
+        while (children.hasNext()) {
+            collect(children.next(), depth + 1, flags);
+        }
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap());
+
+        private final Map<String, Boolean> flags;
+        private final Set<String> maintenanceRoots;
+
+        Snapshot(Map<String, Boolean> flags) {
+            this.flags = Collections.unmodifiableMap(flags);
+            Set<String> roots = new HashSet<>();
+            for (Map.Entry<String, Boolean> entry : flags.entrySet()) {
+                if (entry.getValue()) {
+                    roots.add(entry.getKey());
+                }
+            }
+            this.maintenanceRoots = roots;
+        }
+    }
+}
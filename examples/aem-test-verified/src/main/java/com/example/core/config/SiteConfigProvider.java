@@ -0,0 +1,140 @@
+package com.example.core.config;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.apache.sling.caconfig.ConfigurationResolver;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves {@link SiteConfig} through context-aware configuration and caches the result
+ * per content root (the nearest ancestor carrying {@code sling:configRef}) in a bounded
+ * LRU. Any change below {@code /conf} clears the cache, since inheritance means one
+ * configuration can affect many roots. A content change evicts every entry at or below
+ * the changed path: pages without a {@code sling:configRef} ancestor are cached under
+ * their own path and must be resolved again when an ancestor gains one. Changes below
+ * {@code /content/dam} are ignored. A configuration resolved while an invalidation ran
+ * is returned but not cached.
+ */
+@Component(service = {SiteConfigProvider.class, ResourceChangeListener.class}, property = {
+    "service.description=Site Configuration Provider",
+    ResourceChangeListener.PATHS + "=/conf",
+    ResourceChangeListener.PATHS + "=/content",
+    ResourceChangeListener.CHANGES + "=ADDED",
+    ResourceChangeListener.CHANGES + "=CHANGED",
+    ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = SiteConfigProvider.Config.class)
+public class SiteConfigProvider implements ResourceChangeListener {
+
+    public static final String CONFIG_REF = "sling:configRef";
+
+    @ObjectClassDefinition(name = "Site Configuration Provider")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Max Entries",
+            description = "Maximum number of content roots whose configuration is kept in memory")
+        int maxEntries() default 1000;
+    }
+
+    private final ConfigurationResolver configurationResolver;
+    private final Map<String, SiteConfig> cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    /** Bumped by every invalidation, guarded by the cache lock. */
+    private long generation;
+
+    @Activate
+    public SiteConfigProvider(@Reference ConfigurationResolver configurationResolver, Config config) {
+        this.configurationResolver = configurationResolver;
+        int maxEntries = Math.max(1, config.maxEntries());
+        this.cache = new LinkedHashMap<String, SiteConfig>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SiteConfig> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the site configuration that applies to the given content resource.
+     */
+    public SiteConfig getSiteConfig(Resource contentResource) {
+        Resource root = getContentRoot(contentResource);
+        String key = root.getPath();
+
+        long resolvedAt;
+        synchronized (cache) {
+            SiteConfig config = cache.get(key);
+            if (config != null) {
+                hits.incrementAndGet();
+                return config;
+            }
+            resolvedAt = generation;
+        }
+
+        misses.incrementAndGet();
+        SiteConfig config = configurationResolver.get(root).as(SiteConfig.class);
+        synchronized (cache) {
+            if (generation == resolvedAt) {
+                cache.put(key, config);
+            }
+        }
+        return config;
+    }
+
+    @Override
+    public void onChange(List<ResourceChange> changes) {
+        for (ResourceChange change : changes) {
+            String path = change.getPath();
+            if (isBelow(path, "/content/dam")) {
+                continue;
+            }
+            synchronized (cache) {
+                generation++;
+                if (isBelow(path, "/conf")) {
+                    cache.clear();
+                    return;
+                }
+                cache.keySet().removeIf(key -> isBelow(key, path));
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static boolean isBelow(String path, String ancestor) {
+        return path.equals(ancestor) || path.startsWith(ancestor + "/");
+    }
+
+    static Resource getContentRoot(Resource resource) {
+        for (Resource current = resource; current != null; current = current.getParent()) {
+            if (current.getValueMap().containsKey(CONFIG_REF)) {
+                return current;
+            }
+        }
+        return resource;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.core.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes {@link JsonStreamable} models as JSON. A single {@link JsonFactory} is shared, so
+ * Jackson recycles its per-thread encoding buffers across calls instead of allocating
+ * them for every export.
+ */
+public final class JsonExport {
+
+    private static final JsonFactory FACTORY = JsonFactory.builder().build();
+
+    private JsonExport() {
+    }
+
+    /**
+     * Streams the model to the writer, e.g. a servlet response. The writer is flushed but not closed.
+     */
+    public static void write(JsonStreamable model, Writer out) throws IOException {
+        try (JsonGenerator json = FACTORY.createGenerator(out)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            model.writeJson(json);
+        }
+    }
+
+    public static String toJson(JsonStreamable model) {
+        StringWriter out = new StringWriter(256);
+        try {
+            write(model, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Writes a string field, omitting it when the value is {@code null} like the
+     * exporter's {@code NON_NULL} inclusion.
+     */
+    public static void writeField(JsonGenerator json, String name, String value) throws IOException {
+        if (value != null) {
+            json.writeStringField(name, value);
+        }
+    }
+}
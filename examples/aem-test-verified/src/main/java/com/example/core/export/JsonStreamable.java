@@ -0,0 +1,15 @@
+package com.example.core.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * A model that writes its JSON representation directly to a streaming generator,
+ * without building an intermediate object tree. The output matches what the Sling
+ * Models Jackson exporter produces for the same model.
+ */
+public interface JsonStreamable {
+
+    void writeJson(JsonGenerator json) throws IOException;
+}
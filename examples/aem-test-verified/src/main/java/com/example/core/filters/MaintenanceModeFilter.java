@@ -0,0 +1,61 @@
+package com.example.core.filters;
+
+import com.example.core.config.MaintenanceModeService;
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Answers requests for sites in maintenance mode with 503. The check is a lookup in
+ * the {@link MaintenanceModeService} snapshot and does not resolve configuration.
+ */
+@Component(service = Filter.class, property = {
+    "service.description=Maintenance Mode Filter",
+    "sling.filter.scope=REQUEST",
+    "service.ranking:Integer=1000"
+})
+public class MaintenanceModeFilter implements Filter {
+
+    static final String RETRY_AFTER_SECONDS = "300";
+
+    private final MaintenanceModeService maintenanceModeService;
+
+    @Activate
+    public MaintenanceModeFilter(@Reference MaintenanceModeService maintenanceModeService) {
+        this.maintenanceModeService = maintenanceModeService;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) {
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        if (request instanceof SlingHttpServletRequest) {
+            Resource resource = ((SlingHttpServletRequest) request).getResource();
+            if (resource != null && maintenanceModeService.isMaintenance(resource.getPath())) {
+                HttpServletResponse httpResponse = (HttpServletResponse) response;
+                httpResponse.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+                httpResponse.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Override
+    public void destroy() {
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.core.metrics;
+
+import org.osgi.service.component.annotations.Component;
+
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Named counters, timers and histograms that models, services and workflow steps
+ * report to. Metrics are created on first use; lookups are a concurrent map read and
+ * recording does not lock. Exposed over JMX as {@code com.example.core:type=Metrics}.
+ */
+@Component(service = {MetricsRegistry.class, MetricsRegistryMBean.class}, property = {
+    "service.description=Metrics Registry",
+    "jmx.objectname=com.example.core:type=Metrics"
+})
+public class MetricsRegistry implements MetricsRegistryMBean {
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    public Timer timer(String name) {
+        Timer timer = timers.get(name);
+        return timer != null ? timer : timers.computeIfAbsent(name, key -> new Timer());
+    }
+
+    public Histogram histogram(String name) {
+        Histogram histogram = histograms.get(name);
+        return histogram != null ? histogram : histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    @Override
+    public String[] getMetricNames() {
+        TreeSet<String> names = new TreeSet<>(counters.keySet());
+        names.addAll(timers.keySet());
+        names.addAll(histograms.keySet());
+        return names.toArray(new String[0]);
+    }
+
+    @Override
+    public long getCount(String name) {
+        if (counters.containsKey(name)) {
+            return counters.get(name).getCount();
+        }
+        if (timers.containsKey(name)) {
+            return timers.get(name).getCount();
+        }
+        return histograms.containsKey(name) ? histograms.get(name).getCount() : 0;
+    }
+
+    @Override
+    public double getMeanMicros(String name) {
+        Timer timer = timers.get(name);
+        return timer != null ? timer.getMeanNanos() / TimeUnit.MICROSECONDS.toNanos(1) : 0;
+    }
+
+    @Override
+    public long getPercentileMicros(String name, double percentile) {
+        Timer timer = timers.get(name);
+        return timer != null ? TimeUnit.NANOSECONDS.toMicros(timer.getPercentileNanos(percentile)) : 0;
+    }
+
+    @Override
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(Timer::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.core.metrics;
+
+/**
+ * JMX view of {@link MetricsRegistry}, registered through the JMX whiteboard.
+ */
+public interface MetricsRegistryMBean {
+
+    String[] getMetricNames();
+
+    long getCount(String name);
+
+    double getMeanMicros(String name);
+
+    long getPercentileMicros(String name, double percentile);
+
+    void reset();
+}
@@ -0,0 +1,39 @@
+package com.example.core.metrics;
+
+/**
+ * Records durations in nanoseconds. Use {@code long start = System.nanoTime()} and
+ * {@link #stop(long)} in a {@code finally} block, which avoids allocating a context
+ * object per measurement.
+ */
+public final class Timer {
+
+    private final Histogram durations = new Histogram();
+
+    public void stop(long startNanos) {
+        durations.update(System.nanoTime() - startNanos);
+    }
+
+    public void update(long nanos) {
+        durations.update(nanos);
+    }
+
+    public long getCount() {
+        return durations.getCount();
+    }
+
+    public double getMeanNanos() {
+        return durations.getMean();
+    }
+
+    public long getMaxNanos() {
+        return durations.getMax();
+    }
+
+    public long getPercentileNanos(double percentile) {
+        return durations.getPercentile(percentile);
+    }
+
+    void reset() {
+        durations.reset();
+    }
+}
@@ -1,11 +1,34 @@
 package com.example.core.models;
 
+import com.adobe.cq.export.json.ComponentExporter;
+import com.adobe.cq.export.json.ExporterConstants;
+import com.example.core.export.JsonExport;
+import com.example.core.export.JsonStreamable;
+import com.example.core.services.LinkResolver;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.sling.api.SlingHttpServletRequest;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.models.annotations.Exporter;
 import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.annotations.injectorspecific.InjectionStrategy;
+import org.apache.sling.models.annotations.injectorspecific.OSGiService;
+import org.apache.sling.models.annotations.injectorspecific.SlingObject;
 import org.apache.sling.models.annotations.injectorspecific.ValueMapValue;
 
-@Model(adaptables = Resource.class)
-public class HeroComponent {
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+
+@Model(adaptables = Resource.class, adapters = {HeroComponent.class, ComponentExporter.class},
+    resourceType = HeroComponent.RESOURCE_TYPE)
+@Exporter(name = ExporterConstants.SLING_MODEL_EXPORTER_NAME, extensions = ExporterConstants.SLING_MODEL_EXTENSION)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HeroComponent implements ComponentExporter, JsonStreamable {
+
+    public static final String RESOURCE_TYPE = "mysite/components/hero";
 
     @ValueMapValue
     private String title;
@@ -19,6 +42,26 @@ public class HeroComponent {
     @ValueMapValue
     private String linkURL;
 
+    @SlingObject
+    private ResourceResolver resourceResolver;
+
+    @OSGiService(injectionStrategy = InjectionStrategy.OPTIONAL)
+    private LinkResolver linkResolver;
+
+    private HeroView view;
+
+    @PostConstruct
+    protected void init() {
+        view = new HeroView(title, description, linkText, resolveLink(linkURL));
+    }
+
+    /**
+     * Returns the hero for the given resource, adapting it only once per request.
+     */
+    public static HeroComponent forRequest(SlingHttpServletRequest request, Resource resource) {
+        return RequestModelCache.get(request, resource, HeroComponent.class);
+    }
+
     public String getTitle() {
         return title;
     }
@@ -31,11 +74,55 @@ public class HeroComponent {
         return linkText;
     }
 
+    @JsonIgnore
     public String getLinkURL() {
         return linkURL;
     }
 
+    /**
+     * @return the mapped link, as exported
+     */
+    @JsonProperty("link")
+    public String getLink() {
+        return view.getLinkURL();
+    }
+
     public boolean hasContent() {
-        return title != null && !title.isEmpty();
+        return view.hasContent();
+    }
+
+    /**
+     * @return the precomputed, immutable render state
+     */
+    @JsonIgnore
+    public HeroView getView() {
+        return view;
+    }
+
+    @Override
+    @JsonProperty(":type")
+    public String getExportedType() {
+        return RESOURCE_TYPE;
+    }
+
+    @Override
+    public void writeJson(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeStringField(":type", RESOURCE_TYPE);
+        JsonExport.writeField(json, "title", view.getTitle());
+        JsonExport.writeField(json, "description", view.getDescription());
+        JsonExport.writeField(json, "linkText", view.getLinkText());
+        JsonExport.writeField(json, "link", view.getLinkURL());
+        json.writeEndObject();
+    }
+
+    private String resolveLink(String path) {
+        if (path == null || !path.startsWith("/")) {
+            return path;
+        }
+        if (linkResolver != null) {
+            return linkResolver.resolve(resourceResolver, path);
+        }
+        return resourceResolver.map(LinkResolver.toLink(path));
     }
 }
@@ -0,0 +1,45 @@
+package com.example.core.models;
+
+/**
+ * Immutable, render-ready state of a {@link HeroComponent}: values are read once and the
+ * link is already mapped, so HTL scripts can call the getters any number of times.
+ */
+public final class HeroView {
+
+    private final String title;
+    private final String description;
+    private final String linkText;
+    private final String linkURL;
+    private final boolean content;
+
+    HeroView(String title, String description, String linkText, String linkURL) {
+        this.title = title;
+        this.description = description;
+        this.linkText = linkText;
+        this.linkURL = linkURL;
+        this.content = title != null && !title.isEmpty();
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getLinkText() {
+        return linkText;
+    }
+
+    /**
+     * @return the mapped link, with {@code .html} appended to extensionless content paths
+     */
+    public String getLinkURL() {
+        return linkURL;
+    }
+
+    public boolean hasContent() {
+        return content;
+    }
+}
@@ -1,11 +1,23 @@
 package com.example.core.models;
 
+import com.example.core.export.JsonExport;
+import com.example.core.export.JsonStreamable;
+import com.example.core.services.LinkResolver;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
 import org.apache.sling.models.annotations.Model;
+import org.apache.sling.models.annotations.injectorspecific.InjectionStrategy;
+import org.apache.sling.models.annotations.injectorspecific.OSGiService;
+import org.apache.sling.models.annotations.injectorspecific.SlingObject;
 import org.apache.sling.models.annotations.injectorspecific.ValueMapValue;
 
+import java.io.IOException;
+
 @Model(adaptables = Resource.class)
-public class NavigationItem {
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NavigationItem implements JsonStreamable {
 
     @ValueMapValue
     private String label;
@@ -13,6 +25,14 @@ public class NavigationItem {
     @ValueMapValue
     private String url;
 
+    @SlingObject
+    private ResourceResolver resourceResolver;
+
+    @OSGiService(injectionStrategy = InjectionStrategy.OPTIONAL)
+    private LinkResolver linkResolver;
+
+    private String link;
+
     public String getLabel() {
         return label;
     }
@@ -20,4 +40,29 @@ public class NavigationItem {
     public String getUrl() {
         return url;
     }
+
+    /**
+     * @return the mapped link for {@link #getUrl()}, resolved on first call
+     */
+    public String getLink() {
+        if (link == null && url != null) {
+            if (!url.startsWith("/")) {
+                link = url;
+            } else if (linkResolver != null) {
+                link = linkResolver.resolve(resourceResolver, url);
+            } else {
+                link = resourceResolver.map(LinkResolver.toLink(url));
+            }
+        }
+        return link;
+    }
+
+    @Override
+    public void writeJson(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        JsonExport.writeField(json, "label", label);
+        JsonExport.writeField(json, "url", url);
+        JsonExport.writeField(json, "link", getLink());
+        json.writeEndObject();
+    }
 }
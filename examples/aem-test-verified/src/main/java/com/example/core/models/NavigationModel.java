@@ -1,16 +1,49 @@
 package com.example.core.models;
 
+import com.adobe.cq.export.json.ComponentExporter;
+import com.adobe.cq.export.json.ExporterConstants;
+import com.example.core.export.JsonExport;
+import com.example.core.export.JsonStreamable;
+import com.example.core.metrics.MetricsRegistry;
+import com.example.core.services.NavigationTreeCache;
 import org.apache.sling.api.resource.Resource;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.sling.models.annotations.Exporter;
 import org.apache.sling.models.annotations.Model;
 import org.apache.sling.models.annotations.DefaultInjectionStrategy;
 import org.apache.sling.models.annotations.injectorspecific.ChildResource;
+import org.apache.sling.models.annotations.injectorspecific.OSGiService;
 import org.apache.sling.models.annotations.injectorspecific.Self;
 import org.apache.sling.models.annotations.injectorspecific.ValueMapValue;
 
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
-@Model(adaptables = Resource.class, defaultInjectionStrategy = DefaultInjectionStrategy.OPTIONAL)
-public class NavigationModel {
+/**
+ * Navigation backed by the {@code items} child resource. Items are adapted to
+ * {@link NavigationItem} on demand, so creating the model or checking {@link #hasItems()}
+ * does not touch the individual children.
+ */
+@Model(adaptables = Resource.class, adapters = {NavigationModel.class, ComponentExporter.class},
+    resourceType = NavigationModel.RESOURCE_TYPE, defaultInjectionStrategy = DefaultInjectionStrategy.OPTIONAL)
+@Exporter(name = ExporterConstants.SLING_MODEL_EXPORTER_NAME, extensions = ExporterConstants.SLING_MODEL_EXTENSION)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NavigationModel implements ComponentExporter, JsonStreamable {
+
+    public static final String RESOURCE_TYPE = "mysite/components/navigation";
+
+    static final int DEFAULT_MAX_DEPTH = 3;
+
+    static final String METRIC_ADAPTED = "navigation.model.adapted";
+    static final String METRIC_ITEMS = "navigation.model.items";
 
     @Self
     private Resource resource;
@@ -18,9 +51,28 @@ public class NavigationModel {
     @ValueMapValue
     private String title;
 
+    @ValueMapValue
+    private Integer maxDepth;
+
     @ChildResource(name = "items")
+    private Resource itemsResource;
+
+    @OSGiService
+    private NavigationTreeCache treeCache;
+
+    @OSGiService
+    private MetricsRegistry metrics;
+
     private List<NavigationItem> items;
 
+    @PostConstruct
+    protected void init() {
+        if (metrics != null) {
+            metrics.counter(METRIC_ADAPTED).inc();
+        }
+    }
+
+    @JsonIgnore
     public String getPath() {
         return resource != null ? resource.getPath() : null;
     }
@@ -29,11 +81,133 @@ public class NavigationModel {
         return title;
     }
 
+    /**
+     * @return all items, adapted on first call; {@code null} when there is no {@code items} node
+     */
     public List<NavigationItem> getItems() {
+        if (items == null && itemsResource != null) {
+            long start = System.nanoTime();
+            List<NavigationItem> adapted = new ArrayList<>();
+            iterateItems().forEachRemaining(adapted::add);
+            items = Collections.unmodifiableList(adapted);
+            if (metrics != null) {
+                metrics.timer(METRIC_ITEMS).stop(start);
+            }
+        }
         return items;
     }
 
+    /**
+     * Returns a page of items, adapting only the children inside the requested range.
+     */
+    public List<NavigationItem> getItems(int offset, int limit) {
+        if (itemsResource == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (items != null) {
+            int from = Math.min(Math.max(offset, 0), items.size());
+            return items.subList(from, Math.min(from + limit, items.size()));
+        }
+        List<NavigationItem> page = new ArrayList<>(Math.min(limit, 64));
+        Iterator<NavigationItem> iterator = iterateItems();
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        while (page.size() < limit && iterator.hasNext()) {
+            page.add(iterator.next());
+        }
+        return page;
+    }
+
+    /**
+     * Iterates items lazily, adapting each child only when it is reached.
+     * Children that cannot be adapted to {@link NavigationItem} are skipped.
+     */
+    public Iterator<NavigationItem> iterateItems() {
+        if (itemsResource == null) {
+            return Collections.emptyIterator();
+        }
+        return new ItemIterator(itemsResource.listChildren());
+    }
+
+    /**
+     * @return the multi-level navigation tree, limited to the authored {@code maxDepth}
+     */
+    @JsonIgnore
+    public List<NavigationNode> getTree() {
+        return getTree(maxDepth != null ? maxDepth : DEFAULT_MAX_DEPTH);
+    }
+
+    /**
+     * Returns the multi-level navigation tree, shared through {@link NavigationTreeCache}
+     * when the service is available.
+     */
+    public List<NavigationNode> getTree(int depth) {
+        if (resource == null) {
+            return Collections.emptyList();
+        }
+        return treeCache != null ? treeCache.getTree(resource, depth) : NavigationNode.build(resource, depth);
+    }
+
     public boolean hasItems() {
-        return items != null && !items.isEmpty();
+        if (items != null) {
+            return !items.isEmpty();
+        }
+        return itemsResource != null && itemsResource.hasChildren();
+    }
+
+    @Override
+    @JsonProperty(":type")
+    public String getExportedType() {
+        return RESOURCE_TYPE;
+    }
+
+    /**
+     * Streams the navigation. Items that have not been materialized by {@link #getItems()}
+     * are adapted and written one at a time, so large {@code items} lists are never held
+     * in memory.
+     */
+    @Override
+    public void writeJson(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeStringField(":type", RESOURCE_TYPE);
+        JsonExport.writeField(json, "title", title);
+        if (itemsResource != null) {
+            json.writeArrayFieldStart("items");
+            Iterator<NavigationItem> iterator = items != null ? items.iterator() : iterateItems();
+            while (iterator.hasNext()) {
+                iterator.next().writeJson(json);
+            }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+
+    private static final class ItemIterator implements Iterator<NavigationItem> {
+
+        private final Iterator<Resource> children;
+        private NavigationItem next;
+
+        ItemIterator(Iterator<Resource> children) {
+            this.children = children;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && children.hasNext()) {
+                next = children.next().adaptTo(NavigationItem.class);
+            }
+            return next != null;
+        }
+
+        @Override
+        public NavigationItem next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            NavigationItem item = next;
+            next = null;
+            return item;
+        }
     }
 }
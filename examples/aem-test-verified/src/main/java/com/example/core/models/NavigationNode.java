@@ -0,0 +1,84 @@
+package com.example.core.models;
+
+import org.apache.sling.api.resource.Resource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Immutable node of a multi-level navigation tree. Built once from the nested
+ * {@code items} nodes below a navigation root and safe to share between requests;
+ * the active path is evaluated per render via {@link #isActive(String)}.
+ */
+public final class NavigationNode {
+
+    private final String label;
+    private final String url;
+    private final int level;
+    private final List<NavigationNode> children;
+
+    NavigationNode(String label, String url, int level, List<NavigationNode> children) {
+        this.label = label;
+        this.url = url;
+        this.level = level;
+        this.children = children;
+    }
+
+    /**
+     * Builds the tree below the {@code items} child of the given navigation resource.
+     *
+     * @param maxDepth number of levels to include; values below 1 yield an empty tree
+     */
+    public static List<NavigationNode> build(Resource navigation, int maxDepth) {
+        return buildLevel(navigation.getChild("items"), 1, maxDepth);
+    }
+
+    private static List<NavigationNode> buildLevel(Resource itemsResource, int level, int maxDepth) {
+        if (itemsResource == null || level > maxDepth) {
+            return Collections.emptyList();
+        }
+        List<NavigationNode> nodes = new ArrayList<>();
+        Iterator<Resource> children = itemsResource.listChildren();
+        while (children.hasNext()) {
+            Resource child = children.next();
+            NavigationItem item = child.adaptTo(NavigationItem.class);
+            if (item != null) {
+                nodes.add(new NavigationNode(item.getLabel(), item.getUrl(), level,
+                    buildLevel(child.getChild("items"), level + 1, maxDepth)));
+            }
+        }
+        return Collections.unmodifiableList(nodes);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public List<NavigationNode> getChildren() {
+        return children;
+    }
+
+    public boolean hasChildren() {
+        return !children.isEmpty();
+    }
+
+    /**
+     * @return {@code true} if the given page path is this node's target or lies below it
+     */
+    public boolean isActive(String currentPath) {
+        if (currentPath == null || url == null) {
+            return false;
+        }
+        return currentPath.equals(url) || currentPath.startsWith(url + "/");
+    }
+}
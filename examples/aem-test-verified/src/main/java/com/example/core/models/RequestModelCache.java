@@ -0,0 +1,46 @@
+package com.example.core.models;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.Resource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adapts a resource to a model at most once per request. Adapted models are kept in a
+ * request attribute keyed by model type and resource path; request wrappers created for
+ * includes share attributes, so every script rendering the same resource gets the same
+ * instance.
+ */
+public final class RequestModelCache {
+
+    static final String ATTRIBUTE = RequestModelCache.class.getName();
+
+    private RequestModelCache() {
+    }
+
+    /**
+     * @return the cached or newly adapted model, or {@code null} if the resource cannot be adapted
+     */
+    public static <T> T get(SlingHttpServletRequest request, Resource resource, Class<T> type) {
+        Map<Class<?>, Map<String, Object>> cache = getCache(request);
+        Map<String, Object> models = cache.computeIfAbsent(type, key -> new HashMap<>());
+        String path = resource.getPath();
+        Object model = models.get(path);
+        if (model == null && !models.containsKey(path)) {
+            model = resource.adaptTo(type);
+            models.put(path, model);
+        }
+        return type.cast(model);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<Class<?>, Map<String, Object>> getCache(SlingHttpServletRequest request) {
+        Object cache = request.getAttribute(ATTRIBUTE);
+        if (cache == null) {
+            cache = new HashMap<Class<?>, Map<String, Object>>();
+            request.setAttribute(ATTRIBUTE, cache);
+        }
+        return (Map<Class<?>, Map<String, Object>>) cache;
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.core.services;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory index of {@code dam:status} per asset, with per-folder counts, so that
+ * "all rejected assets under X" is answered without traversing the DAM. The index is
+ * built by a background thread started on activation, so a large DAM does not hold up
+ * bundle start; until that build completes {@link #isReady()} is {@code false} and
+ * queries answer from an empty index. It is kept current from resource changes: a change
+ * inside an asset's {@code jcr:content} re-reads that asset's status, an added subtree is
+ * scanned and a removed subtree is dropped. Changes that arrive during a build are
+ * applied once it is published. Counters and folders that drop to zero are removed.
+ * Writes are serialized; reads take no locks.
+ */
+@Component(service = {DamStatusIndex.class, ResourceChangeListener.class}, property = {
+    "service.description=DAM Status Index",
+    ResourceChangeListener.PATHS + "=/content/dam",
+    ResourceChangeListener.CHANGES + "=ADDED",
+    ResourceChangeListener.CHANGES + "=CHANGED",
+    ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = DamStatusIndex.Config.class)
+public class DamStatusIndex implements ResourceChangeListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DamStatusIndex.class);
+
+    private static final String JCR_CONTENT = "jcr:content";
+    private static final String METADATA_PATH = JCR_CONTENT + "/metadata";
+    private static final String DAM_STATUS = "dam:status";
+
+    @ObjectClassDefinition(name = "DAM Status Index")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Root", description = "DAM folder below which asset status is indexed")
+        String root() default "/content/dam";
+
+        @AttributeDefinition(name = "Subservice",
+            description = "Service user mapping used to read asset metadata")
+        String subservice() default "dam-status-reader";
+    }
+
+    private final ResourceResolverFactory resolverFactory;
+    private final String root;
+    private final Map<String, Object> authInfo;
+    private final Object rebuildLock = new Object();
+    private final CountDownLatch ready = new CountDownLatch(1);
+    private final Thread builder;
+
+    private volatile State state = new State();
+    /** Changes received while a rebuild scans, guarded by this; {@code null} when none runs. */
+    private List<ResourceChange> pending;
+
+    @Activate
+    public DamStatusIndex(@Reference ResourceResolverFactory resolverFactory, Config config) {
+        this.resolverFactory = resolverFactory;
+        this.root = config.root();
+        this.authInfo = Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, config.subservice());
+        this.builder = new Thread(this::rebuild, "dam-status-index");
+        this.builder.setDaemon(true);
+        this.builder.start();
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        builder.interrupt();
+        try {
+            builder.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return whether the initial build has completed; before that, queries answer from an empty index
+     */
+    public boolean isReady() {
+        return ready.getCount() == 0;
+    }
+
+    /**
+     * Waits for the initial build to complete.
+     *
+     * @return {@code false} if it did not complete in time
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
+    /**
+     * @return the indexed status of the asset, or {@code null} if it has none
+     */
+    public String getStatus(String assetPath) {
+        return state.statusByAsset.get(assetPath);
+    }
+
+    /**
+     * @return number of assets at or below the folder with the given status
+     */
+    public int getCount(String folderPath, String status) {
+        Map<String, AtomicInteger> counts = state.countsByFolder.get(folderPath);
+        AtomicInteger count = counts != null ? counts.get(status) : null;
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * @return status to asset count for all assets at or below the folder
+     */
+    public Map<String, Integer> getCounts(String folderPath) {
+        Map<String, AtomicInteger> counts = state.countsByFolder.get(folderPath);
+        if (counts == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, Integer> result = new TreeMap<>();
+        counts.forEach((status, count) -> {
+            if (count.get() > 0) {
+                result.put(status, count.get());
+            }
+        });
+        return result;
+    }
+
+    /**
+     * @return paths of the assets at or below the folder with the given status, in path order
+     */
+    public List<String> getAssets(String folderPath, String status) {
+        NavigableSet<String> assets = state.assetsByStatus.get(status);
+        if (assets == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(subtree(assets, folderPath));
+    }
+
+    /**
+     * @return number of indexed assets with a status
+     */
+    public int size() {
+        return state.statusByAsset.size();
+    }
+
+    @Override
+    public void onChange(List<ResourceChange> changes) {
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(authInfo)) {
+            for (ResourceChange change : changes) {
+                apply(resolver, change);
+            }
+        } catch (LoginException e) {
+            LOG.error("Cannot update DAM status index, it is stale until the next rebuild", e);
+        }
+    }
+
+    /**
+     * @return number of folders holding at least one non-zero count
+     */
+    int folderCount() {
+        return state.countsByFolder.size();
+    }
+
+    /**
+     * Rebuilds the index from the repository and publishes it atomically. The scan holds
+     * no lock; changes arriving meanwhile are queued and applied to the new index once it
+     * is published, so none are lost with the replaced one.
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            State fresh = new State();
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(authInfo)) {
+                Resource rootResource = resolver.getResource(root);
+                if (rootResource != null) {
+                    scan(rootResource, fresh);
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    LOG.info("DAM status index build below {} interrupted", root);
+                    return;
+                }
+                resolver.refresh();
+                synchronized (this) {
+                    state = fresh;
+                    List<ResourceChange> queued = pending;
+                    pending = null;
+                    // the scan may already have seen some of these; applying them again is harmless
+                    for (ResourceChange change : queued) {
+                        apply(resolver, change);
+                    }
+                }
+                LOG.info("Indexed status of {} assets below {} in {} ms",
+                    fresh.statusByAsset.size(), root, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            } catch (LoginException e) {
+                LOG.error("Cannot build DAM status index for {}", root, e);
+            } finally {
+                synchronized (this) {
+                    pending = null;
+                }
+                ready.countDown();
+            }
+        }
+    }
+
+    private synchronized void apply(ResourceResolver resolver, ResourceChange change) {
+        String path = change.getPath();
+        if (!isWithin(path, root)) {
+            return;
+        }
+        if (pending != null) {
+            pending.add(change);
+            return;
+        }
+        int content = path.indexOf("/" + JCR_CONTENT);
+        if (content >= 0) {
+            String assetPath = path.substring(0, content);
+            Resource asset = resolver.getResource(assetPath);
+            state.set(assetPath, asset != null ? readStatus(asset) : null);
+        } else if (change.getType() == ResourceChange.ChangeType.REMOVED) {
+            removeSubtree(path);
+        } else {
+            Resource resource = resolver.getResource(path);
+            if (resource != null && (change.getType() == ResourceChange.ChangeType.ADDED || isAsset(resource))) {
+                scan(resource, state);
+            }
+        }
+    }
+
+    private void removeSubtree(String path) {
+        State current = state;
+        List<String> removed = new ArrayList<>();
+        for (NavigableSet<String> assets : current.assetsByStatus.values()) {
+            removed.addAll(subtree(assets, path));
+        }
+        for (String assetPath : removed) {
+            current.set(assetPath, null);
+        }
+    }
+
+    private void scan(Resource resource, State target) {
+        if (Thread.currentThread().isInterrupted()) {
+            return;
+        }
+        if (isAsset(resource)) {
+            target.set(resource.getPath(), readStatus(resource));
+            return;
+        }
+        Iterator<Resource> children = resource.listChildren();
+        while (children.hasNext()) {
+            Resource child = children.next();
+            if (!JCR_CONTENT.equals(child.getName())) {
+                scan(child, target);
+            }
+        }
+    }
+
+    private static NavigableSet<String> subtree(NavigableSet<String> sorted, String path) {
+        NavigableSet<String> below = sorted.subSet(path + "/", true, path + "/\uffff", true);
+        if (!sorted.contains(path)) {
+            return below;
+        }
+        NavigableSet<String> result = new TreeSet<>(below);
+        result.add(path);
+        return result;
+    }
+
+    private static String readStatus(Resource asset) {
+        Resource metadata = asset.getChild(METADATA_PATH);
+        return metadata != null ? metadata.getValueMap().get(DAM_STATUS, String.class) : null;
+    }
+
+    private static boolean isAsset(Resource resource) {
+        return "dam:Asset".equals(resource.getValueMap().get("jcr:primaryType", String.class))
+            || resource.getChild(METADATA_PATH) != null;
+    }
+
+    private static boolean isWithin(String path, String folder) {
+        return path.equals(folder) || path.startsWith(folder + "/");
+    }
+
+    /**
+     * Index data. Mutated only while holding the index lock; the concurrent collections
+     * make individual reads safe without it.
+     */
+    private final class State {
+
+        private final Map<String, String> statusByAsset = new ConcurrentHashMap<>();
+        private final Map<String, NavigableSet<String>> assetsByStatus = new ConcurrentHashMap<>();
+        private final Map<String, Map<String, AtomicInteger>> countsByFolder = new ConcurrentHashMap<>();
+
+        void set(String assetPath, String status) {
+            String previous = status != null ? statusByAsset.put(assetPath, status) : statusByAsset.remove(assetPath);
+            if (previous != null && previous.equals(status)) {
+                return;
+            }
+            if (previous != null) {
+                NavigableSet<String> assets = assetsByStatus.get(previous);
+                if (assets.remove(assetPath) && assets.isEmpty()) {
+                    assetsByStatus.remove(previous);
+                }
+                count(assetPath, previous, -1);
+            }
+            if (status != null) {
+                assetsByStatus.computeIfAbsent(status, key -> new ConcurrentSkipListSet<>()).add(assetPath);
+                count(assetPath, status, 1);
+            }
+        }
+
+        /**
+         * Adjusts the count of every folder from the asset's parent up to the root and
+         * drops counters, and then folders, that reach zero, so removed folders and
+         * statuses do not accumulate.
+         */
+        private void count(String assetPath, String status, int delta) {
+            for (String folder = parent(assetPath); folder != null && isWithin(folder, root);
+                    folder = parent(folder)) {
+                if (delta > 0) {
+                    countsByFolder.computeIfAbsent(folder, key -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(status, key -> new AtomicInteger())
+                        .addAndGet(delta);
+                    continue;
+                }
+                Map<String, AtomicInteger> counts = countsByFolder.get(folder);
+                AtomicInteger count = counts != null ? counts.get(status) : null;
+                if (count != null && count.addAndGet(delta) <= 0) {
+                    counts.remove(status);
+                    if (counts.isEmpty()) {
+                        countsByFolder.remove(folder);
+                    }
+                }
+            }
+        }
+
+        private String parent(String path) {
+            int slash = path.lastIndexOf('/');
+            return slash > 0 ? path.substring(0, slash) : null;
+        }
+    }
+}
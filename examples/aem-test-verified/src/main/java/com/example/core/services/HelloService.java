@@ -1,22 +1,135 @@
 package com.example.core.services;
 
+import com.example.core.metrics.MetricsRegistry;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 
+/**
+ * Reference implementation of a cached OSGi service: generated messages are memoized
+ * in a bounded {@link MessageCache} configured through metatype, and cache hits and
+ * misses are counted. The counts live only in the {@link MetricsRegistry} counters; until
+ * a registry is bound they are kept in a private one, so the getters always report them.
+ */
 @Component(service = HelloService.class, property = {
     "service.description=Hello Service"
 })
+@Designate(ocd = HelloService.Config.class)
 public class HelloService {
 
     private static final String DEFAULT_MESSAGE = "Hello, World!";
 
+    static final int DEFAULT_CACHE_SIZE = 1000;
+    static final long DEFAULT_CACHE_TTL_SECONDS = 300;
+
+    static final String METRIC_MESSAGE = "hello.message";
+    static final String METRIC_HITS = "hello.cache.hits";
+    static final String METRIC_MISSES = "hello.cache.misses";
+
+    @ObjectClassDefinition(name = "Hello Service")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Cache Enabled")
+        boolean cacheEnabled() default true;
+
+        @AttributeDefinition(name = "Cache Size", description = "Maximum number of cached messages")
+        int cacheSize() default DEFAULT_CACHE_SIZE;
+
+        @AttributeDefinition(name = "Cache TTL", description = "Time to live of a cached message in seconds; 0 never expires")
+        long cacheTtlSeconds() default DEFAULT_CACHE_TTL_SECONDS;
+    }
+
+    private final MetricsRegistry localMetrics = new MetricsRegistry();
+
+    private volatile MessageCache cache = createCache(DEFAULT_CACHE_SIZE, DEFAULT_CACHE_TTL_SECONDS);
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+        policyOption = ReferencePolicyOption.GREEDY)
+    private volatile MetricsRegistry metrics;
+
+    public HelloService() {
+    }
+
+    HelloService(MessageCache cache) {
+        this.cache = cache;
+    }
+
+    @Activate
+    @Modified
+    protected void activate(Config config) {
+        cache = config.cacheEnabled() ? createCache(config.cacheSize(), config.cacheTtlSeconds()) : null;
+    }
+
+    private static MessageCache createCache(int size, long ttlSeconds) {
+        return new LruMessageCache(size, ttlSeconds * 1000L);
+    }
+
     public String getMessage(String name) {
         if (name == null || name.isEmpty()) {
             return DEFAULT_MESSAGE;
         }
-        return "Hello, " + name + "!";
+        MetricsRegistry registry = metrics;
+        if (registry == null) {
+            return lookup(name, localMetrics);
+        }
+        long start = System.nanoTime();
+        try {
+            return lookup(name, registry);
+        } finally {
+            registry.timer(METRIC_MESSAGE).stop(start);
+        }
+    }
+
+    private String lookup(String name, MetricsRegistry registry) {
+        MessageCache current = cache;
+        if (current == null) {
+            return createMessage(name);
+        }
+        String message = current.get(name);
+        if (message != null) {
+            registry.counter(METRIC_HITS).inc();
+            return message;
+        }
+        registry.counter(METRIC_MISSES).inc();
+        message = createMessage(name);
+        current.put(name, message);
+        return message;
     }
 
     public int getCount() {
         return 42;
     }
+
+    public long getCacheHits() {
+        return registry().counter(METRIC_HITS).getCount();
+    }
+
+    public long getCacheMisses() {
+        return registry().counter(METRIC_MISSES).getCount();
+    }
+
+    private MetricsRegistry registry() {
+        MetricsRegistry registry = metrics;
+        return registry != null ? registry : localMetrics;
+    }
+
+    public int getCacheSize() {
+        MessageCache current = cache;
+        return current != null ? current.size() : 0;
+    }
+
+    /**
+     * Builds the message; in real greeting/personalization services this is the
+     * expensive lookup the cache exists for.
+     */
+    protected String createMessage(String name) {
+        return "Hello, " + name + "!";
+    }
 }
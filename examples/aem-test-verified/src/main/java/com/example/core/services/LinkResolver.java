@@ -0,0 +1,313 @@
+package com.example.core.services;
+
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Turns repository paths into links ({@code .html} suffix for extensionless content
+ * paths, then {@link ResourceResolver#map}) and caches the result per path and
+ * mapping context in a bounded LRU. Changes below {@code /etc/map} clear the cache.
+ * Content changes that can alter a mapping (added or removed resources, changed
+ * {@code sling:vanityPath} or {@code sling:alias}) evict the links of the changed
+ * subtree through a sorted path index; a change on a page's {@code jcr:content}, where
+ * those properties live, evicts the page. Other property changes, changes further below
+ * {@code jcr:content} and everything below {@code /content/dam} are ignored.
+ * <p>
+ * Large caches are split into segments by path, each an LRU with its own lock and path
+ * index, so concurrent lookups of different links rarely wait for each other.
+ */
+@Component(service = {LinkResolver.class, ResourceChangeListener.class}, property = {
+    "service.description=Link Resolver",
+    ResourceChangeListener.PATHS + "=/etc/map",
+    ResourceChangeListener.PATHS + "=/content",
+    ResourceChangeListener.CHANGES + "=ADDED",
+    ResourceChangeListener.CHANGES + "=CHANGED",
+    ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = LinkResolver.Config.class)
+public class LinkResolver implements ResourceChangeListener {
+
+    @ObjectClassDefinition(name = "Link Resolver")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Max Entries", description = "Maximum number of cached links")
+        int maxEntries() default 10000;
+    }
+
+    static final String VANITY_PATH = "sling:vanityPath";
+    static final String ALIAS = "sling:alias";
+
+    private static final String JCR_CONTENT = "/jcr:content";
+    /** Caches smaller than this keep a single, exact LRU. */
+    private static final int SEGMENTED_MIN_ENTRIES = 1024;
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Activate
+    public LinkResolver(Config config) {
+        int maxEntries = Math.max(1, config.maxEntries());
+        int count = maxEntries >= SEGMENTED_MIN_ENTRIES ? SEGMENTS : 1;
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment((maxEntries + count - 1) / count);
+        }
+    }
+
+    /**
+     * Resolves a link without request context (e.g. in models adapted from a resource).
+     */
+    public String resolve(ResourceResolver resolver, String path) {
+        if (!isRepositoryPath(path)) {
+            return path;
+        }
+        return lookup(new Key("", path), resolver, null);
+    }
+
+    /**
+     * Resolves a link for the host, scheme and port of the given request.
+     */
+    public String resolve(SlingHttpServletRequest request, String path) {
+        if (!isRepositoryPath(path)) {
+            return path;
+        }
+        String context = request.getScheme() + "://" + request.getServerName() + ":" + request.getServerPort();
+        return lookup(new Key(context, path), request.getResourceResolver(), request);
+    }
+
+    @Override
+    public void onChange(List<ResourceChange> changes) {
+        for (ResourceChange change : changes) {
+            String path = change.getPath();
+            if (path.startsWith("/etc/map")) {
+                for (Segment segment : segments) {
+                    segment.clear();
+                }
+                return;
+            }
+            int content = path.indexOf(JCR_CONTENT);
+            if (content >= 0) {
+                // mapping properties of a page live on its jcr:content node, nowhere below it
+                if (content + JCR_CONTENT.length() != path.length()) {
+                    continue;
+                }
+                path = path.substring(0, content);
+            }
+            if (affectsMapping(change)) {
+                for (Segment segment : segments) {
+                    segment.evict(path);
+                }
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+
+    public int size() {
+        return Stream.of(segments).mapToInt(Segment::size).sum();
+    }
+
+    /**
+     * Applies the link conventions without mapping: {@code .html} is appended to
+     * extensionless {@code /content} paths.
+     */
+    public static String toLink(String path) {
+        if (path != null && path.startsWith("/content/") && path.indexOf('.', path.lastIndexOf('/')) < 0) {
+            return path + ".html";
+        }
+        return path;
+    }
+
+    private String lookup(Key key, ResourceResolver resolver, SlingHttpServletRequest request) {
+        Segment segment = segment(key.path);
+        long mappedAt;
+        synchronized (segment) {
+            String link = segment.cache.get(key);
+            if (link != null) {
+                hits.incrementAndGet();
+                return link;
+            }
+            mappedAt = segment.generation;
+        }
+        misses.incrementAndGet();
+        String unmapped = toLink(key.path);
+        String link = request != null ? resolver.map(request, unmapped) : resolver.map(unmapped);
+        segment.put(key, link, mappedAt);
+        return link;
+    }
+
+    /**
+     * All keys of a path share a segment, so a segment's index covers every variant.
+     */
+    private Segment segment(String path) {
+        if (segments.length == 1) {
+            return segments[0];
+        }
+        int hash = path.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    /**
+     * Added and removed resources can change how their subtree maps; a changed resource
+     * only through its vanity path or alias. Property names are not reported for every
+     * change, in which case the subtree is evicted as well.
+     */
+    @SuppressWarnings("deprecation")
+    private static boolean affectsMapping(ResourceChange change) {
+        String path = change.getPath();
+        if (path.equals("/content/dam") || path.startsWith("/content/dam/")) {
+            return false;
+        }
+        if (change.getType() != ResourceChange.ChangeType.CHANGED) {
+            return true;
+        }
+        Set<String> changed = change.getChangedPropertyNames();
+        Set<String> added = change.getAddedPropertyNames();
+        Set<String> removed = change.getRemovedPropertyNames();
+        if (changed == null && added == null && removed == null) {
+            return true;
+        }
+        return containsMappingProperty(changed) || containsMappingProperty(added) || containsMappingProperty(removed);
+    }
+
+    private static boolean containsMappingProperty(Set<String> names) {
+        return names != null && (names.contains(VANITY_PATH) || names.contains(ALIAS));
+    }
+
+    private static boolean isRepositoryPath(String path) {
+        return path != null && path.startsWith("/");
+    }
+
+    /**
+     * One LRU with its path index; all fields are guarded by the segment's monitor.
+     */
+    private static final class Segment {
+
+        private final Map<Key, String> cache;
+        /** Cached keys by path; sorted so a subtree is one range. */
+        private final NavigableMap<String, Set<Key>> index = new TreeMap<>();
+        /** Bumped by every eviction. */
+        private long generation;
+
+        Segment(int maxEntries) {
+            this.cache = new LinkedHashMap<Key, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, String> eldest) {
+                    if (size() > maxEntries) {
+                        unindex(eldest.getKey());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized void put(Key key, String link, long mappedAt) {
+            // a mapping computed while an eviction ran may already be stale
+            if (generation == mappedAt && cache.put(key, link) == null) {
+                index.computeIfAbsent(key.path, path -> new HashSet<>(2)).add(key);
+            }
+        }
+
+        /**
+         * Evicts the links of the given path, its descendants and its selector/extension
+         * variants: all of them sort into the range of keys starting with the path.
+         */
+        synchronized void evict(String path) {
+            generation++;
+            List<String> evicted = new ArrayList<>();
+            for (Map.Entry<String, Set<Key>> entry : index.tailMap(path, true).entrySet()) {
+                String cached = entry.getKey();
+                if (!cached.startsWith(path)) {
+                    break;
+                }
+                if (cached.length() == path.length() || cached.charAt(path.length()) == '/'
+                        || cached.charAt(path.length()) == '.') {
+                    cache.keySet().removeAll(entry.getValue());
+                    evicted.add(cached);
+                }
+            }
+            index.keySet().removeAll(evicted);
+        }
+
+        synchronized void clear() {
+            generation++;
+            cache.clear();
+            index.clear();
+        }
+
+        synchronized int size() {
+            return cache.size();
+        }
+
+        private void unindex(Key key) {
+            Set<Key> keys = index.get(key.path);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                index.remove(key.path);
+            }
+        }
+    }
+
+    private static final class Key {
+
+        private final String context;
+        private final String path;
+        private final int hash;
+
+        Key(String context, String path) {
+            this.context = context;
+            this.path = path;
+            this.hash = 31 * context.hashCode() + path.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return hash == key.hash && Objects.equals(path, key.path) && Objects.equals(context, key.context);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.core.services;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link MessageCache} with least-recently-used eviction beyond {@code maxSize} entries
+ * and a per-entry time to live.
+ */
+public class LruMessageCache implements MessageCache {
+
+    private final Map<String, Entry> entries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    public LruMessageCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::nanoTime);
+    }
+
+    LruMessageCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        int bound = Math.max(1, maxSize);
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > bound;
+            }
+        };
+    }
+
+    @Override
+    public synchronized String get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && clock.getAsLong() - entry.created >= ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.message;
+    }
+
+    @Override
+    public synchronized void put(String key, String message) {
+        entries.put(key, new Entry(message, clock.getAsLong()));
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+
+        private final String message;
+        private final long created;
+
+        Entry(String message, long created) {
+            this.message = message;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.core.services;
+
+/**
+ * Cache used by {@link HelloService} for generated messages. Implementations must be
+ * thread-safe and bounded.
+ */
+public interface MessageCache {
+
+    /**
+     * @return the cached message, or {@code null} if absent or expired
+     */
+    String get(String key);
+
+    void put(String key, String message);
+
+    void clear();
+
+    int size();
+}
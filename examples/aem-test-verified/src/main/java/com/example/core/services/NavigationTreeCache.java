@@ -0,0 +1,177 @@
+package com.example.core.services;
+
+import com.example.core.models.NavigationNode;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches immutable navigation trees per navigation root and depth in a bounded LRU. An
+ * entry is reused while the root's last-modified date is unchanged and is dropped when
+ * a resource change is observed at, above or below the root. A tree whose build
+ * overlapped such a change is returned but not cached, so it cannot outlive the
+ * invalidation. Changes below {@code /content/dam} are ignored.
+ */
+@Component(service = {NavigationTreeCache.class, ResourceChangeListener.class}, property = {
+    "service.description=Navigation Tree Cache",
+    ResourceChangeListener.PATHS + "=/content",
+    ResourceChangeListener.CHANGES + "=ADDED",
+    ResourceChangeListener.CHANGES + "=CHANGED",
+    ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = NavigationTreeCache.Config.class)
+public class NavigationTreeCache implements ResourceChangeListener {
+
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+
+    @ObjectClassDefinition(name = "Navigation Tree Cache")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Max Entries",
+            description = "Maximum number of navigation trees (per root and depth) kept in memory")
+        int maxEntries() default DEFAULT_MAX_ENTRIES;
+    }
+
+    private final Map<String, Entry> cache;
+    /** Builds in progress, guarded by the cache lock. */
+    private final List<Build> builds = new ArrayList<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public NavigationTreeCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    @Activate
+    public NavigationTreeCache(Config config) {
+        this(config.maxEntries());
+    }
+
+    private NavigationTreeCache(int maxEntries) {
+        int bound = Math.max(1, maxEntries);
+        this.cache = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > bound;
+            }
+        };
+    }
+
+    public List<NavigationNode> getTree(Resource navigation, int maxDepth) {
+        String rootPath = navigation.getPath();
+        String key = rootPath + "|" + maxDepth;
+        long lastModified = getLastModified(navigation);
+
+        Build build = new Build(rootPath);
+        synchronized (cache) {
+            Entry entry = cache.get(key);
+            if (entry != null && entry.lastModified == lastModified) {
+                hits.incrementAndGet();
+                return entry.tree;
+            }
+            builds.add(build);
+        }
+
+        misses.incrementAndGet();
+        List<NavigationNode> tree = null;
+        try {
+            tree = NavigationNode.build(navigation, maxDepth);
+            return tree;
+        } finally {
+            synchronized (cache) {
+                builds.remove(build);
+                if (tree != null && !build.stale) {
+                    cache.put(key, new Entry(rootPath, lastModified, tree));
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onChange(List<ResourceChange> changes) {
+        for (ResourceChange change : changes) {
+            String path = change.getPath();
+            if (!path.equals("/content/dam") && !path.startsWith("/content/dam/")) {
+                invalidate(path);
+            }
+        }
+    }
+
+    /**
+     * Drops every cached tree whose root is at, above or below the given path and keeps
+     * trees being built for such a root out of the cache.
+     */
+    public void invalidate(String path) {
+        synchronized (cache) {
+            for (Build build : builds) {
+                if (isRelated(build.rootPath, path)) {
+                    build.stale = true;
+                }
+            }
+            cache.values().removeIf(entry -> isRelated(entry.rootPath, path));
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static boolean isRelated(String rootPath, String changedPath) {
+        return rootPath.equals(changedPath)
+            || changedPath.startsWith(rootPath + "/")
+            || rootPath.startsWith(changedPath + "/");
+    }
+
+    private static long getLastModified(Resource navigation) {
+        Calendar lastModified = navigation.getValueMap().get("cq:lastModified", Calendar.class);
+        if (lastModified == null) {
+            lastModified = navigation.getValueMap().get("jcr:lastModified", Calendar.class);
+        }
+        return lastModified != null ? lastModified.getTimeInMillis() : 0L;
+    }
+
+    private static final class Entry {
+
+        private final String rootPath;
+        private final long lastModified;
+        private final List<NavigationNode> tree;
+
+        Entry(String rootPath, long lastModified, List<NavigationNode> tree) {
+            this.rootPath = rootPath;
+            this.lastModified = lastModified;
+            this.tree = tree;
+        }
+    }
+
+    private static final class Build {
+
+        private final String rootPath;
+        private boolean stale;
+
+        Build(String rootPath) {
+            this.rootPath = rootPath;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.core.services;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Immutable result of a {@link WarmupService} run: what was warmed and how long each
+ * kind of work took.
+ */
+public final class WarmupReport {
+
+    private final int visited;
+    private final int navigationModels;
+    private final int heroComponents;
+    private final int siteConfigs;
+    private final int failures;
+    private final long navigationNanos;
+    private final long heroNanos;
+    private final long siteConfigNanos;
+    private final long elapsedNanos;
+    private final boolean complete;
+
+    WarmupReport(int visited, int navigationModels, int heroComponents, int siteConfigs, int failures,
+            long navigationNanos, long heroNanos, long siteConfigNanos, long elapsedNanos, boolean complete) {
+        this.visited = visited;
+        this.navigationModels = navigationModels;
+        this.heroComponents = heroComponents;
+        this.siteConfigs = siteConfigs;
+        this.failures = failures;
+        this.navigationNanos = navigationNanos;
+        this.heroNanos = heroNanos;
+        this.siteConfigNanos = siteConfigNanos;
+        this.elapsedNanos = elapsedNanos;
+        this.complete = complete;
+    }
+
+    /**
+     * @return number of resources traversed below the content roots
+     */
+    public int getVisited() {
+        return visited;
+    }
+
+    public int getNavigationModels() {
+        return navigationModels;
+    }
+
+    public int getHeroComponents() {
+        return heroComponents;
+    }
+
+    public int getSiteConfigs() {
+        return siteConfigs;
+    }
+
+    /**
+     * @return number of resources whose model or configuration could not be created
+     */
+    public int getFailures() {
+        return failures;
+    }
+
+    public long getNavigationNanos() {
+        return navigationNanos;
+    }
+
+    public long getHeroNanos() {
+        return heroNanos;
+    }
+
+    public long getSiteConfigNanos() {
+        return siteConfigNanos;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return {@code false} if the run stopped at the time budget or was interrupted
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s warm-up of %d resources in %d ms: %d navigation (%d ms), %d hero (%d ms), "
+                + "%d site configs (%d ms), %d failures",
+            complete ? "Complete" : "Partial", visited, millis(elapsedNanos),
+            navigationModels, millis(navigationNanos), heroComponents, millis(heroNanos),
+            siteConfigs, millis(siteConfigNanos), failures);
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.core.services;
+
+import com.example.core.config.SiteConfigProvider;
+import com.example.core.models.HeroComponent;
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.models.factory.ModelFactory;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Warms the caches that are otherwise filled by the first requests after a deployment.
+ * On activation a background thread walks the configured content roots and adapts every
+ * navigation and hero component it finds (which builds the Sling Models injection
+ * metadata, the {@link NavigationTreeCache} entries and the mapped links) and resolves
+ * the {@link com.example.core.config.SiteConfig} of each site root through
+ * {@link SiteConfigProvider}. {@code /content/dam} is skipped: it holds no components,
+ * and its renditions and metadata would use up the budget before any site is reached.
+ * The walk stops when the time budget is used up; the outcome is logged and available
+ * from {@link #getReport()}.
+ */
+@Component(service = WarmupService.class, immediate = true)
+@Designate(ocd = WarmupService.Config.class)
+public class WarmupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmupService.class);
+
+    @ObjectClassDefinition(name = "Model Warm-up")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Content Roots", description = "Paths below which components and site roots are warmed")
+        String[] contentRoots() default {"/content"};
+
+        @AttributeDefinition(name = "Max Depth", description = "Number of levels below each content root that are traversed")
+        int maxDepth() default 8;
+
+        @AttributeDefinition(name = "Time Budget", description = "Maximum warm-up time in milliseconds")
+        long timeBudgetMillis() default 30_000;
+
+        @AttributeDefinition(name = "Subservice", description = "Service user mapping used to read content")
+        String subservice() default "model-warmup";
+    }
+
+    private final ResourceResolverFactory resolverFactory;
+    private final ModelFactory modelFactory;
+    private final SiteConfigProvider siteConfigProvider;
+    private final String[] contentRoots;
+    private final int maxDepth;
+    private final long timeBudgetNanos;
+    private final Map<String, Object> authInfo;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final Thread thread;
+
+    private volatile WarmupReport report;
+
+    @Activate
+    public WarmupService(@Reference ResourceResolverFactory resolverFactory, @Reference ModelFactory modelFactory,
+            @Reference SiteConfigProvider siteConfigProvider, Config config) {
+        this(resolverFactory, modelFactory, siteConfigProvider, config, true);
+    }
+
+    WarmupService(ResourceResolverFactory resolverFactory, ModelFactory modelFactory,
+            SiteConfigProvider siteConfigProvider, Config config, boolean start) {
+        this.resolverFactory = resolverFactory;
+        this.modelFactory = modelFactory;
+        this.siteConfigProvider = siteConfigProvider;
+        this.contentRoots = config.contentRoots().clone();
+        this.maxDepth = Math.max(0, config.maxDepth());
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.timeBudgetMillis()));
+        this.authInfo = Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, config.subservice());
+        if (start) {
+            thread = new Thread(this::warmUp, "model-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            thread = null;
+        }
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * @return the report of the finished warm-up, or {@code null} while it is running
+     */
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    /**
+     * Waits for the warm-up to finish.
+     *
+     * @return the report, or {@code null} if it did not finish in time
+     */
+    public WarmupReport awaitReport(long timeout, TimeUnit unit) throws InterruptedException {
+        return done.await(timeout, unit) ? report : null;
+    }
+
+    /**
+     * Runs the warm-up in the calling thread.
+     */
+    WarmupReport warmUp() {
+        Run run = new Run(System.nanoTime());
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(authInfo)) {
+            for (String path : contentRoots) {
+                Resource root = resolver.getResource(path);
+                if (root == null) {
+                    LOG.debug("Warm-up root {} does not exist", path);
+                } else if (!visit(root, 0, run)) {
+                    break;
+                }
+            }
+        } catch (LoginException e) {
+            LOG.error("Cannot open service resolver for warm-up", e);
+            run.complete = false;
+        } finally {
+            report = run.toReport();
+            done.countDown();
+        }
+        LOG.info("{}", report);
+        return report;
+    }
+
+    /**
+     * @return {@code false} once the budget is used up or the thread was interrupted
+     */
+    private boolean visit(Resource resource, int depth, Run run) {
+        if (Thread.currentThread().isInterrupted() || System.nanoTime() - run.start >= timeBudgetNanos) {
+            run.complete = false;
+            return false;
+        }
+        String path = resource.getPath();
+        if (path.equals("/content/dam") || path.startsWith("/content/dam/")) {
+            return true;
+        }
+        run.visited++;
+        warm(resource, run);
+        if (depth < maxDepth) {
+            Iterator<Resource> children = resource.listChildren();
+            while (children.hasNext()) {
+                if (!visit(children.next(), depth + 1, run)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void warm(Resource resource, Run run) {
+        long start = System.nanoTime();
+        try {
+            if (resource.getValueMap().containsKey(SiteConfigProvider.CONFIG_REF)) {
+                siteConfigProvider.getSiteConfig(resource);
+                run.siteConfigs++;
+                run.siteConfigNanos += System.nanoTime() - start;
+            } else if (resource.isResourceType(NavigationModel.RESOURCE_TYPE)) {
+                NavigationModel navigation = modelFactory.createModel(resource, NavigationModel.class);
+                navigation.getTree();
+                List<NavigationItem> items = navigation.getItems();
+                if (items != null) {
+                    items.forEach(NavigationItem::getLink);
+                }
+                run.navigationModels++;
+                run.navigationNanos += System.nanoTime() - start;
+            } else if (resource.isResourceType(HeroComponent.RESOURCE_TYPE)) {
+                modelFactory.createModel(resource, HeroComponent.class).hasContent();
+                run.heroComponents++;
+                run.heroNanos += System.nanoTime() - start;
+            }
+        } catch (RuntimeException e) {
+            LOG.debug("Cannot warm {}: {}", resource.getPath(), e.getMessage());
+            run.failures++;
+        }
+    }
+
+    private static final class Run {
+
+        private final long start;
+        private int visited;
+        private int navigationModels;
+        private int heroComponents;
+        private int siteConfigs;
+        private int failures;
+        private long navigationNanos;
+        private long heroNanos;
+        private long siteConfigNanos;
+        private boolean complete = true;
+
+        Run(long start) {
+            this.start = start;
+        }
+
+        WarmupReport toReport() {
+            return new WarmupReport(visited, navigationModels, heroComponents, siteConfigs, failures,
+                navigationNanos, heroNanos, siteConfigNanos, System.nanoTime() - start, complete);
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.example.core.servlets;
+
+import com.example.core.export.JsonExport;
+import com.example.core.models.NavigationModel;
+import org.apache.sling.api.SlingHttpServletRequest;
+import org.apache.sling.api.SlingHttpServletResponse;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChangeListener;
+import org.apache.sling.api.servlets.SlingSafeMethodsServlet;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+
+import javax.servlet.Servlet;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serves the navigation component as JSON ({@code <path>.nav.json}) for client-side
+ * headers. The rendered bytes are kept in a bounded LRU cache keyed by the navigation
+ * path, together with a strong ETag hashed from the navigation properties, its
+ * {@code items} subtree and the current mapping version. A matching {@code If-None-Match}
+ * is answered with 304 without rendering, also on a cache miss.
+ * <p>
+ * Each cached navigation path has a version stamp, and an entry is only served while
+ * it carries the current stamp of its path. A resource change at or below a navigation,
+ * or the removal or addition of one of its ancestors, gives that path a new stamp, so
+ * invalidation only touches the affected paths and never waits for the cache lock taken
+ * by requests. Renderings in progress for such a path are kept out of the cache. Changes
+ * below {@code /etc/map} alter every link, so they renew all stamps and change every
+ * ETag. Changes below {@code /content/dam} and property changes on ancestors cannot
+ * alter a navigation and are ignored.
+ */
+@Component(service = {Servlet.class, ResourceChangeListener.class}, property = {
+    "service.description=Navigation JSON Servlet",
+    "sling.servlet.resourceTypes=" + NavigationModel.RESOURCE_TYPE,
+    "sling.servlet.selectors=" + NavigationServlet.SELECTOR,
+    "sling.servlet.extensions=json",
+    "sling.servlet.methods=GET",
+    ResourceChangeListener.PATHS + "=/content",
+    ResourceChangeListener.PATHS + "=/etc/map",
+    ResourceChangeListener.CHANGES + "=ADDED",
+    ResourceChangeListener.CHANGES + "=CHANGED",
+    ResourceChangeListener.CHANGES + "=REMOVED"
+})
+@Designate(ocd = NavigationServlet.Config.class)
+public class NavigationServlet extends SlingSafeMethodsServlet implements ResourceChangeListener {
+
+    private static final long serialVersionUID = 1L;
+
+    static final String SELECTOR = "nav";
+
+    @ObjectClassDefinition(name = "Navigation JSON Servlet")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Max Entries", description = "Maximum number of cached navigation responses")
+        int maxEntries() default 500;
+    }
+
+    private final transient Map<String, Rendered> cache;
+    /** Version stamp per cached navigation path; sorted so a subtree is a key range. */
+    private final ConcurrentNavigableMap<String, Long> versions = new ConcurrentSkipListMap<>();
+    private final transient Set<Build> builds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong stamps = new AtomicLong();
+    /** Number of mapping changes seen; part of the ETag. */
+    private final AtomicLong mappingVersion = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+
+    @Activate
+    public NavigationServlet(Config config) {
+        int bound = Math.max(1, config.maxEntries());
+        this.cache = new LinkedHashMap<String, Rendered>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Rendered> eldest) {
+                if (size() > bound) {
+                    versions.remove(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    protected void doGet(SlingHttpServletRequest request, SlingHttpServletResponse response) throws IOException {
+        Resource navigation = request.getResource();
+        String path = navigation.getPath();
+
+        Rendered rendered = get(path);
+        if (rendered != null && isCurrent(rendered)) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+            // registered before hashing so an invalidation during rendering keeps the result out of the cache
+            Build build = new Build(path);
+            builds.add(build);
+            try {
+                String etag = computeETag(navigation, mappingVersion.get());
+                if (matches(request.getHeader("If-None-Match"), etag)) {
+                    sendNotModified(response, etag);
+                    return;
+                }
+                NavigationModel model = navigation.adaptTo(NavigationModel.class);
+                if (model == null) {
+                    response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+                }
+                rendered = new Rendered(path, stamps.incrementAndGet(), etag, render(model));
+                put(rendered, build);
+            } finally {
+                builds.remove(build);
+            }
+        }
+
+        if (matches(request.getHeader("If-None-Match"), rendered.etag)) {
+            sendNotModified(response, rendered.etag);
+            return;
+        }
+        response.setContentType("application/json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("ETag", rendered.etag);
+        response.setContentLength(rendered.body.length);
+        response.getOutputStream().write(rendered.body);
+    }
+
+    @Override
+    public void onChange(List<ResourceChange> changes) {
+        for (ResourceChange change : changes) {
+            String path = change.getPath();
+            if (path.equals("/etc/map") || path.startsWith("/etc/map/")) {
+                mappingVersion.incrementAndGet();
+                builds.forEach(build -> build.stale = true);
+                versions.replaceAll((key, version) -> stamps.incrementAndGet());
+                continue;
+            }
+            if (path.equals("/content/dam") || path.startsWith("/content/dam/")) {
+                continue;
+            }
+            boolean structural = change.getType() != ResourceChange.ChangeType.CHANGED;
+            for (Build build : builds) {
+                if (isAffected(build.path, path, structural)) {
+                    build.stale = true;
+                }
+            }
+            renew(path);
+            for (int slash = path.lastIndexOf('/'); slash > 0; slash = path.lastIndexOf('/', slash - 1)) {
+                renew(path.substring(0, slash));
+            }
+            // navigations below the changed path only move or disappear with it
+            if (structural) {
+                for (String descendant : versions.subMap(path + "/", path + "0").keySet()) {
+                    renew(descendant);
+                }
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of requests answered with 304
+     */
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    /**
+     * @return number of navigation paths holding a version stamp
+     */
+    int stamped() {
+        return versions.size();
+    }
+
+    /**
+     * Hashes the navigation's own properties and every resource below its {@code items}
+     * node, in child order, so reordering, adding or editing an item changes the ETag.
+     * The mapping version covers the links, which depend on {@code /etc/map}.
+     */
+    static String computeETag(Resource navigation, long mappingVersion) {
+        MessageDigest digest = sha256();
+        digest.update(Long.toString(mappingVersion).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        update(digest, navigation.getValueMap());
+        Resource items = navigation.getChild("items");
+        if (items != null) {
+            updateTree(digest, items, "");
+        }
+        byte[] hash = digest.digest();
+        StringBuilder etag = new StringBuilder(34).append('"');
+        for (int i = 0; i < 16; i++) {
+            etag.append(Character.forDigit((hash[i] >> 4) & 0xf, 16)).append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header against the ETag, accepting {@code *},
+     * lists and weak validators as required for GET.
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void sendNotModified(SlingHttpServletResponse response, String etag) {
+        notModified.incrementAndGet();
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader("ETag", etag);
+    }
+
+    private Rendered get(String path) {
+        synchronized (cache) {
+            return cache.get(path);
+        }
+    }
+
+    /**
+     * Caches a rendering and records its stamp, unless its path was invalidated while it
+     * was built. An invalidation that marks the build only after the check did not see
+     * the new stamp either, so the stamp is withdrawn again.
+     */
+    private void put(Rendered rendered, Build build) {
+        if (build.stale) {
+            return;
+        }
+        synchronized (cache) {
+            versions.put(rendered.path, rendered.version);
+            cache.put(rendered.path, rendered);
+        }
+        if (build.stale) {
+            versions.remove(rendered.path, rendered.version);
+        }
+    }
+
+    private boolean isCurrent(Rendered rendered) {
+        Long current = versions.get(rendered.path);
+        return current != null && current == rendered.version;
+    }
+
+    /**
+     * Gives a navigation path a new version stamp if it has one, making its cached
+     * rendering stale.
+     */
+    private void renew(String path) {
+        versions.computeIfPresent(path, (key, version) -> stamps.incrementAndGet());
+    }
+
+    /**
+     * A navigation at {@code navigationPath} changes with any change at or below it, and
+     * with structural changes of its ancestors.
+     */
+    private static boolean isAffected(String navigationPath, String changedPath, boolean structural) {
+        return navigationPath.equals(changedPath)
+            || changedPath.startsWith(navigationPath + "/")
+            || structural && navigationPath.startsWith(changedPath + "/");
+    }
+
+    private static byte[] render(NavigationModel model) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (Writer out = new OutputStreamWriter(bytes, StandardCharsets.UTF_8)) {
+            JsonExport.write(model, out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void updateTree(MessageDigest digest, Resource resource, String relativePath) {
+        digest.update(relativePath.getBytes(StandardCharsets.UTF_8));
+        update(digest, resource.getValueMap());
+        Iterator<Resource> children = resource.listChildren();
+        while (children.hasNext()) {
+            Resource child = children.next();
+            updateTree(digest, child, relativePath + "/" + child.getName());
+        }
+    }
+
+    private static void update(MessageDigest digest, ValueMap properties) {
+        // sorted so the hash does not depend on property iteration order
+        for (Map.Entry<String, Object> property : new TreeMap<>(properties).entrySet()) {
+            Object value = property.getValue();
+            String text = value instanceof Object[] ? Arrays.deepToString((Object[]) value) : String.valueOf(value);
+            digest.update(property.getKey().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '=');
+            digest.update(text.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Build {
+
+        private final String path;
+        private volatile boolean stale;
+
+        Build(String path) {
+            this.path = path;
+        }
+    }
+
+    private static final class Rendered {
+
+        private final String path;
+        private final long version;
+        private final String etag;
+        private final byte[] body;
+
+        Rendered(String path, long version, String etag, byte[] body) {
+            this.path = path;
+            this.version = version;
+            this.etag = etag;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.core.workflow;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Outcome of a bulk approval: number of assets updated, number of paths skipped
+ * (missing or without metadata) and the paths that failed with their error message.
+ */
+public final class ApprovalResult {
+
+    private int updated;
+    private int skipped;
+    private final Map<String, String> failures = new LinkedHashMap<>();
+
+    void addUpdated(int count) {
+        updated += count;
+    }
+
+    void addSkipped(int count) {
+        skipped += count;
+    }
+
+    void addFailure(String path, String message) {
+        failures.put(path, message);
+    }
+
+    void merge(ApprovalResult other) {
+        updated += other.updated;
+        skipped += other.skipped;
+        failures.putAll(other.failures);
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public Map<String, String> getFailures() {
+        return Collections.unmodifiableMap(failures);
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+}
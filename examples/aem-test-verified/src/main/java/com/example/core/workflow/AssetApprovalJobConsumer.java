@@ -0,0 +1,121 @@
+package com.example.core.workflow;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.event.jobs.Job;
+import org.apache.sling.event.jobs.consumer.JobConsumer;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Processes approval jobs enqueued by {@link AssetApprovalProcess} in asynchronous mode.
+ * Asset paths in a job are written in batches; folder paths are approved recursively.
+ * A failed commit reverts the pending changes and returns {@link JobResult#FAILED} so the
+ * job queue retries it. Setting the same status twice is harmless, so retrying a job whose
+ * earlier batches were already committed is safe. Writes go through the OSGi-managed
+ * {@link AssetApprovalProcess}, so they share its retry settings, metrics and audit log,
+ * and are audited for the user who started the workflow.
+ */
+@Component(service = JobConsumer.class, property = {
+    JobConsumer.PROPERTY_TOPICS + "=" + AssetApprovalJobConsumer.TOPIC
+})
+@Designate(ocd = AssetApprovalJobConsumer.Config.class)
+public class AssetApprovalJobConsumer implements JobConsumer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetApprovalJobConsumer.class);
+
+    public static final String TOPIC = "com/example/core/workflow/asset-approval";
+
+    /** Job property holding the asset or folder paths to update, as {@code String[]}. */
+    public static final String PROPERTY_PATHS = "paths";
+
+    /** Job property holding the {@code dam:status} value to set. */
+    public static final String PROPERTY_STATUS = "status";
+
+    /** Job property holding the ID of the user who initiated the approval. */
+    public static final String PROPERTY_USER_ID = "userId";
+
+    @ObjectClassDefinition(name = "Asset Approval Job Consumer")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Batch Size", description = "Number of assets updated per commit")
+        int batchSize() default AssetApprovalProcess.DEFAULT_BATCH_SIZE;
+
+        @AttributeDefinition(name = "Subservice",
+            description = "Service user mapping used to write the asset metadata")
+        String subservice() default "asset-approval";
+    }
+
+    private final ResourceResolverFactory resolverFactory;
+    private final AssetApprovalProcess process;
+    private final Map<String, Object> authInfo;
+
+    private final int batchSize;
+
+    @Activate
+    public AssetApprovalJobConsumer(@Reference ResourceResolverFactory resolverFactory,
+            @Reference AssetApprovalProcess process, Config config) {
+        this.resolverFactory = resolverFactory;
+        this.process = process;
+        this.batchSize = Math.max(1, config.batchSize());
+        this.authInfo = Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, config.subservice());
+    }
+
+    @Override
+    public JobResult process(Job job) {
+        String[] paths = job.getProperty(PROPERTY_PATHS, String[].class);
+        String status = job.getProperty(PROPERTY_STATUS, String.class);
+        String userId = job.getProperty(PROPERTY_USER_ID, String.class);
+        if (paths == null || paths.length == 0 || status == null) {
+            LOG.warn("Cancelling approval job {} without paths or status", job.getId());
+            return JobResult.CANCEL;
+        }
+
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(authInfo)) {
+            try {
+                int updated = approve(resolver, paths, status, userId != null ? userId : resolver.getUserID());
+                LOG.info("Approval job {}: {} assets {}", job.getId(), updated, status);
+                return JobResult.OK;
+            } catch (PersistenceException e) {
+                resolver.revert();
+                LOG.warn("Approval job {} failed on attempt {}, will be retried: {}",
+                    job.getId(), job.getRetryCount() + 1, e.getMessage());
+                return JobResult.FAILED;
+            }
+        } catch (LoginException e) {
+            LOG.error("Cannot open service resolver for approval job {}", job.getId(), e);
+            return JobResult.FAILED;
+        }
+    }
+
+    private int approve(ResourceResolver resolver, String[] paths, String status, String userId)
+            throws PersistenceException {
+        int updated = 0;
+        List<String> assets = new ArrayList<>(paths.length);
+        for (String path : paths) {
+            Resource resource = resolver.getResource(path);
+            if (resource == null) {
+                LOG.debug("Skipping missing approval payload {}", path);
+            } else if (AssetApprovalProcess.isAsset(resource)) {
+                assets.add(path);
+            } else {
+                updated += process.updateFolder(resolver, resource, status, userId, batchSize);
+            }
+        }
+        return updated + process.updateAssets(resolver, assets, status, userId, batchSize);
+    }
+}
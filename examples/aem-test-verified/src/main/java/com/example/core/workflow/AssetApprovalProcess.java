@@ -3,29 +3,137 @@ package com.example.core.workflow;
 import com.adobe.granite.workflow.WorkflowException;
 import com.adobe.granite.workflow.WorkflowSession;
 import com.adobe.granite.workflow.exec.WorkItem;
+import com.adobe.granite.workflow.exec.Workflow;
 import com.adobe.granite.workflow.exec.WorkflowProcess;
 import com.adobe.granite.workflow.metadata.MetaDataMap;
+import com.example.core.audit.ApprovalAuditLog;
+import com.example.core.audit.AuditEntry;
+import com.example.core.metrics.MetricsRegistry;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
 import org.apache.sling.api.resource.ModifiableValueMap;
 import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.event.jobs.Job;
+import org.apache.sling.event.jobs.JobManager;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-@Component(service = WorkflowProcess.class, property = {
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Lock;
+
+@Component(service = {WorkflowProcess.class, AssetApprovalProcess.class}, property = {
     "process.label=Asset Approval Process"
 })
+@Designate(ocd = AssetApprovalProcess.Config.class)
 public class AssetApprovalProcess implements WorkflowProcess {
 
     private static final Logger LOG = LoggerFactory.getLogger(AssetApprovalProcess.class);
 
+    static final int DEFAULT_BATCH_SIZE = 500;
+    static final int DEFAULT_MAX_RETRIES = 3;
+    static final long DEFAULT_RETRY_BACKOFF_MILLIS = 50;
+
+    static final String METRIC_EXECUTE = "workflow.approval.execute";
+    static final String METRIC_UPDATED = "workflow.approval.updated";
+    static final String METRIC_FAILURES = "workflow.approval.failures";
+    static final String METRIC_ENQUEUED = "workflow.approval.enqueued";
+    static final String METRIC_RETRIES = "workflow.approval.retries";
+
+    private static final String METADATA_PATH = "jcr:content/metadata";
+    private static final String DAM_ASSET = "dam:Asset";
+    private static final String DAM_STATUS = "dam:status";
+
+    // shared by all instances so single-asset writes from the workflow, job consumer and
+    // parallel executor are serialized per path within the JVM
+    static final StripedLock ASSET_LOCKS = new StripedLock(64);
+
+    @ObjectClassDefinition(name = "Asset Approval Process")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Batch Size",
+            description = "Number of assets updated per commit when the payload is a folder")
+        int batchSize() default DEFAULT_BATCH_SIZE;
+
+        @AttributeDefinition(name = "Asynchronous",
+            description = "Enqueue approvals as Sling jobs instead of writing in the workflow thread")
+        boolean async() default false;
+
+        @AttributeDefinition(name = "Max Retries",
+            description = "Number of times a commit is retried after a conflict")
+        int maxRetries() default DEFAULT_MAX_RETRIES;
+
+        @AttributeDefinition(name = "Retry Backoff",
+            description = "Initial delay in milliseconds before retrying a conflicting commit; doubled per attempt")
+        long retryBackoffMillis() default DEFAULT_RETRY_BACKOFF_MILLIS;
+    }
+
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private boolean async;
+    private int maxRetries = DEFAULT_MAX_RETRIES;
+    private long retryBackoffMillis = DEFAULT_RETRY_BACKOFF_MILLIS;
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+        policyOption = ReferencePolicyOption.GREEDY)
+    private volatile JobManager jobManager;
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+        policyOption = ReferencePolicyOption.GREEDY)
+    private volatile MetricsRegistry metrics;
+
+    @Reference(cardinality = ReferenceCardinality.OPTIONAL, policy = ReferencePolicy.DYNAMIC,
+        policyOption = ReferencePolicyOption.GREEDY)
+    private volatile ApprovalAuditLog auditLog;
+
+    public AssetApprovalProcess() {
+    }
+
+    @Activate
+    @Modified
+    protected void activate(Config config) {
+        batchSize = Math.max(1, config.batchSize());
+        async = config.async();
+        maxRetries = Math.max(0, config.maxRetries());
+        retryBackoffMillis = Math.max(0, config.retryBackoffMillis());
+    }
+
     @Override
     public void execute(WorkItem workItem, WorkflowSession workflowSession, MetaDataMap metaDataMap)
             throws WorkflowException {
+        MetricsRegistry registry = metrics;
+        long start = System.nanoTime();
+        try {
+            doExecute(workItem, workflowSession, metaDataMap, registry);
+        } catch (WorkflowException | RuntimeException e) {
+            if (registry != null) {
+                registry.counter(METRIC_FAILURES).inc();
+            }
+            throw e;
+        } finally {
+            if (registry != null) {
+                registry.timer(METRIC_EXECUTE).stop(start);
+            }
+        }
+    }
+
+    private void doExecute(WorkItem workItem, WorkflowSession workflowSession, MetaDataMap metaDataMap,
+            MetricsRegistry registry) throws WorkflowException {
 
         String payloadPath = workItem.getWorkflowData().getPayload().toString();
-        String action = metaDataMap.get("PROCESS_ARGS", "action=approve");
+        ProcessArgs args = ProcessArgs.of(metaDataMap.get("PROCESS_ARGS", "action=approve"));
 
         ResourceResolver resolver = workflowSession.adaptTo(ResourceResolver.class);
         if (resolver == null) {
@@ -37,31 +145,305 @@ public class AssetApprovalProcess implements WorkflowProcess {
             throw new WorkflowException("Asset not found: " + payloadPath);
         }
 
+        String status = args.getAction().getStatus();
+        String userId = getInitiator(workItem, resolver);
+
+        if (async && status != null && enqueue(payloadPath, status, userId)) {
+            if (registry != null) {
+                registry.counter(METRIC_ENQUEUED).inc();
+            }
+            return;
+        }
+
         try {
-            Resource metadataResource = assetResource.getChild("jcr:content/metadata");
-            if (metadataResource != null) {
-                ModifiableValueMap properties = metadataResource.adaptTo(ModifiableValueMap.class);
-                if (properties != null) {
-                    if (action.contains("approve")) {
-                        properties.put("dam:status", "approved");
-                        LOG.info("Asset approved: {}", payloadPath);
-                    } else if (action.contains("reject")) {
-                        properties.put("dam:status", "rejected");
-                        LOG.info("Asset rejected: {}", payloadPath);
-                    }
-                    resolver.commit();
+            int updated = 0;
+            if (isAsset(assetResource)) {
+                if (updateAsset(resolver, assetResource, status, userId)) {
+                    LOG.info("Asset {}: {}", status, payloadPath);
+                    updated = 1;
                 }
+            } else if (status != null) {
+                updated = updateFolder(resolver, assetResource, status, userId, batchSize);
+                LOG.info("Assets {} under {}: {}", status, payloadPath, updated);
+            }
+            if (registry != null) {
+                registry.counter(METRIC_UPDATED).inc(updated);
             }
         } catch (PersistenceException e) {
+            resolver.revert();
             throw new WorkflowException("Failed to update asset metadata", e);
         }
     }
 
+    /**
+     * @return the user who started the workflow, or the session user when the initiator is unknown
+     */
+    private static String getInitiator(WorkItem workItem, ResourceResolver resolver) {
+        Workflow workflow = workItem.getWorkflow();
+        String initiator = workflow != null ? workflow.getInitiator() : null;
+        return initiator != null ? initiator : resolver.getUserID();
+    }
+
+    /**
+     * Hands the payload to {@link AssetApprovalJobConsumer}, with the initiating user so
+     * the audit trail does not record the consumer's service user.
+     *
+     * @return {@code false} when no {@link JobManager} is bound, in which case the caller writes synchronously
+     */
+    private boolean enqueue(String payloadPath, String status, String userId) throws WorkflowException {
+        JobManager jobs = jobManager;
+        if (jobs == null) {
+            LOG.warn("Asynchronous approval configured but no JobManager available, approving {} inline", payloadPath);
+            return false;
+        }
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AssetApprovalJobConsumer.PROPERTY_PATHS, new String[] {payloadPath});
+        properties.put(AssetApprovalJobConsumer.PROPERTY_STATUS, status);
+        if (userId != null) {
+            properties.put(AssetApprovalJobConsumer.PROPERTY_USER_ID, userId);
+        }
+        Job job = jobs.addJob(AssetApprovalJobConsumer.TOPIC, properties);
+        if (job == null) {
+            throw new WorkflowException("Failed to enqueue approval job for " + payloadPath);
+        }
+        LOG.debug("Enqueued approval job {} for {}", job.getId(), payloadPath);
+        return true;
+    }
+
+    /**
+     * Sets {@code dam:status} on a single asset and commits, holding the asset's lock so
+     * concurrent approvals of the same asset in this JVM do not conflict. Nothing is
+     * written when the asset already has the status. The change is audited after the
+     * lock is released, so a slow audit log never holds up other approvals of the asset.
+     *
+     * @return {@code true} if the status was changed
+     */
+    public boolean updateAsset(ResourceResolver resolver, Resource asset, String status)
+            throws PersistenceException {
+        return updateAsset(resolver, asset, status, resolver.getUserID());
+    }
+
+    /**
+     * As {@link #updateAsset(ResourceResolver, Resource, String)}, auditing the change
+     * as made by the given user.
+     */
+    public boolean updateAsset(ResourceResolver resolver, Resource asset, String status, String userId)
+            throws PersistenceException {
+        Resource metadataResource = asset.getChild(METADATA_PATH);
+        if (metadataResource == null || status == null) {
+            return false;
+        }
+        Map<String, String> committed;
+        Lock lock = ASSET_LOCKS.get(asset.getPath());
+        lock.lock();
+        try {
+            Map<String, String> changes = new LinkedHashMap<>(2);
+            if (!setStatus(metadataResource, status, changes)) {
+                return false;
+            }
+            committed = commit(resolver, changes, status);
+        } finally {
+            lock.unlock();
+        }
+        audit(committed, status, userId);
+        return !committed.isEmpty();
+    }
+
+    /**
+     * Sets {@code dam:status} on every asset below the given folder, committing once per batch.
+     *
+     * @return number of assets updated
+     */
+    public int updateFolder(ResourceResolver resolver, Resource folder, String status)
+            throws PersistenceException {
+        return updateFolder(resolver, folder, status, resolver.getUserID(), batchSize);
+    }
+
+    /**
+     * As {@link #updateFolder(ResourceResolver, Resource, String)}, auditing the changes
+     * as made by the given user and committing every {@code batchSize} assets.
+     */
+    public int updateFolder(ResourceResolver resolver, Resource folder, String status, String userId, int batchSize)
+            throws PersistenceException {
+        Batch batch = new Batch(resolver, status, userId, batchSize);
+        collect(folder, batch);
+        batch.commit();
+        return batch.updated;
+    }
+
+    /**
+     * Sets {@code dam:status} on the assets at the given paths, committing once per batch.
+     * Paths that do not resolve are skipped.
+     *
+     * @return number of assets updated
+     */
+    public int updateAssets(ResourceResolver resolver, Iterable<String> assetPaths, String status)
+            throws PersistenceException {
+        return updateAssets(resolver, assetPaths, status, resolver.getUserID(), batchSize);
+    }
+
+    /**
+     * As {@link #updateAssets(ResourceResolver, Iterable, String)}, auditing the changes
+     * as made by the given user and committing every {@code batchSize} assets.
+     */
+    public int updateAssets(ResourceResolver resolver, Iterable<String> assetPaths, String status, String userId,
+            int batchSize) throws PersistenceException {
+        Batch batch = new Batch(resolver, status, userId, batchSize);
+        for (String path : assetPaths) {
+            Resource asset = resolver.getResource(path);
+            if (asset != null) {
+                batch.add(asset);
+            }
+        }
+        batch.commit();
+        return batch.updated;
+    }
+
     public String getStatus(Resource assetResource) {
-        Resource metadataResource = assetResource.getChild("jcr:content/metadata");
+        Resource metadataResource = assetResource.getChild(METADATA_PATH);
         if (metadataResource != null) {
-            return metadataResource.getValueMap().get("dam:status", String.class);
+            return metadataResource.getValueMap().get(DAM_STATUS, String.class);
         }
         return null;
     }
+
+    private void collect(Resource folder, Batch batch) throws PersistenceException {
+        Iterator<Resource> children = folder.listChildren();
+        while (children.hasNext()) {
+            Resource child = children.next();
+            if (isAsset(child)) {
+                batch.add(child);
+            } else if (!"jcr:content".equals(child.getName())) {
+                collect(child, batch);
+            }
+        }
+    }
+
+    static boolean isAsset(Resource resource) {
+        return DAM_ASSET.equals(resource.getValueMap().get("jcr:primaryType", String.class))
+            || resource.getChild(METADATA_PATH) != null;
+    }
+
+    /**
+     * Sets the status unless it is already set, recording the metadata path and previous
+     * status in {@code changes}.
+     */
+    private static boolean setStatus(Resource metadataResource, String status, Map<String, String> changes) {
+        if (status == null) {
+            return false;
+        }
+        ModifiableValueMap properties = metadataResource.adaptTo(ModifiableValueMap.class);
+        if (properties == null) {
+            return false;
+        }
+        String previous = properties.get(DAM_STATUS, String.class);
+        if (status.equals(previous)) {
+            return false;
+        }
+        properties.put(DAM_STATUS, status);
+        changes.put(metadataResource.getPath(), previous);
+        return true;
+    }
+
+    /**
+     * Commits status changes already applied to the given metadata resources. On a
+     * conflict the session is reverted and refreshed, the changes that are still needed
+     * are re-applied and the commit is retried after an exponential backoff with jitter.
+     * Callers audit the returned changes once they no longer hold any asset lock.
+     *
+     * @param changes metadata path to previous status of the applied changes
+     * @return metadata path to previous status of the changes the successful commit wrote
+     */
+    private Map<String, String> commit(ResourceResolver resolver, Map<String, String> changes, String status)
+            throws PersistenceException {
+        for (int attempt = 0; !changes.isEmpty(); attempt++) {
+            try {
+                resolver.commit();
+                return changes;
+            } catch (PersistenceException e) {
+                resolver.revert();
+                resolver.refresh();
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                LOG.debug("Commit conflict on attempt {}, retrying: {}", attempt + 1, e.getMessage());
+                MetricsRegistry registry = metrics;
+                if (registry != null) {
+                    registry.counter(METRIC_RETRIES).inc();
+                }
+                backoff(attempt);
+                Map<String, String> reapplied = new LinkedHashMap<>();
+                for (String path : changes.keySet()) {
+                    Resource metadataResource = resolver.getResource(path);
+                    if (metadataResource != null) {
+                        setStatus(metadataResource, status, reapplied);
+                    }
+                }
+                changes = reapplied;
+            }
+        }
+        return changes;
+    }
+
+    private void audit(Map<String, String> changes, String status, String userId) {
+        ApprovalAuditLog log = auditLog;
+        if (log == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int suffix = METADATA_PATH.length() + 1;
+        for (Map.Entry<String, String> change : changes.entrySet()) {
+            String assetPath = change.getKey().substring(0, change.getKey().length() - suffix);
+            log.record(new AuditEntry(assetPath, userId, now, change.getValue(), status));
+        }
+    }
+
+    private void backoff(int attempt) throws PersistenceException {
+        long delay = retryBackoffMillis << Math.min(attempt, 16);
+        if (delay <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PersistenceException("Interrupted while retrying commit", e);
+        }
+    }
+
+    private final class Batch {
+
+        private final ResourceResolver resolver;
+        private final String status;
+        private final String userId;
+        private final int size;
+        private final Map<String, String> pending = new LinkedHashMap<>();
+        private int updated;
+
+        Batch(ResourceResolver resolver, String status, String userId, int size) {
+            this.resolver = resolver;
+            this.status = status;
+            this.userId = userId;
+            this.size = Math.max(1, size);
+        }
+
+        void add(Resource asset) throws PersistenceException {
+            Resource metadataResource = asset.getChild(METADATA_PATH);
+            if (metadataResource != null && setStatus(metadataResource, status, pending)) {
+                LOG.debug("Asset {}: {}", status, asset.getPath());
+                if (pending.size() >= size) {
+                    commit();
+                }
+            }
+        }
+
+        void commit() throws PersistenceException {
+            if (!pending.isEmpty()) {
+                Map<String, String> committed = AssetApprovalProcess.this.commit(resolver, pending, status);
+                audit(committed, status, userId);
+                updated += committed.size();
+                pending.clear();
+            }
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package com.example.core.workflow;
+
+import org.apache.sling.api.resource.LoginException;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.metatype.annotations.AttributeDefinition;
+import org.osgi.service.metatype.annotations.Designate;
+import org.osgi.service.metatype.annotations.ObjectClassDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs bulk approvals in parallel. Payload paths are partitioned across a bounded
+ * number of workers, each with its own service resource resolver, and the per-worker
+ * results are merged. Workers run on one executor kept for the component's lifetime,
+ * using virtual threads when the JVM provides them; when a worker fails, the other
+ * workers of that call are cancelled. Writes go through the OSGi-managed
+ * {@link AssetApprovalProcess}, so they are retried, counted and audited like approvals
+ * from the workflow.
+ */
+@Component(service = ParallelApprovalExecutor.class)
+@Designate(ocd = ParallelApprovalExecutor.Config.class)
+public class ParallelApprovalExecutor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ParallelApprovalExecutor.class);
+
+    @ObjectClassDefinition(name = "Parallel Asset Approval Executor")
+    public @interface Config {
+
+        @AttributeDefinition(name = "Threads",
+            description = "Maximum number of concurrent workers; 0 uses the number of available processors")
+        int threads() default 0;
+
+        @AttributeDefinition(name = "Batch Size",
+            description = "Number of assets updated per commit within a worker")
+        int batchSize() default AssetApprovalProcess.DEFAULT_BATCH_SIZE;
+
+        @AttributeDefinition(name = "Subservice",
+            description = "Service user mapping used for the per-worker resource resolvers")
+        String subservice() default "asset-approval";
+    }
+
+    private final ResourceResolverFactory resolverFactory;
+    private final AssetApprovalProcess process;
+    private final int threads;
+    private final int batchSize;
+    private final Map<String, Object> authInfo;
+    private final ExecutorService executor;
+
+    @Activate
+    public ParallelApprovalExecutor(@Reference ResourceResolverFactory resolverFactory,
+            @Reference AssetApprovalProcess process, Config config) {
+        this.resolverFactory = resolverFactory;
+        this.threads = config.threads() > 0 ? config.threads() : Runtime.getRuntime().availableProcessors();
+        this.batchSize = Math.max(1, config.batchSize());
+        this.process = process;
+        this.authInfo = Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, config.subservice());
+        this.executor = newExecutor(threads);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        executor.shutdownNow();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOG.warn("Approval workers did not stop within 10s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Sets {@code dam:status} on the given assets using up to the configured number of
+     * workers, audited as changes by the service user.
+     */
+    public ApprovalResult execute(List<String> assetPaths, String status) {
+        return execute(assetPaths, status, null);
+    }
+
+    /**
+     * Sets {@code dam:status} on the given assets using up to the configured number of workers.
+     *
+     * @param userId user the changes are audited for; {@code null} for the service user
+     */
+    public ApprovalResult execute(List<String> assetPaths, String status, String userId) {
+        ApprovalResult result = new ApprovalResult();
+        if (assetPaths.isEmpty()) {
+            return result;
+        }
+
+        int workers = Math.min(threads, assetPaths.size());
+        List<Future<ApprovalResult>> futures = new ArrayList<>(workers);
+        boolean completed = false;
+        try {
+            for (List<String> partition : partition(assetPaths, workers)) {
+                futures.add(executor.submit(() -> approve(partition, status, userId)));
+            }
+            for (Future<ApprovalResult> future : futures) {
+                result.merge(future.get());
+            }
+            completed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while approving assets", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Approval worker failed", e.getCause());
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("Approval executor is shut down", e);
+        } finally {
+            if (!completed) {
+                // the executor is shared, so stop only this call's workers
+                for (Future<ApprovalResult> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+
+        LOG.info("Assets {}: {} updated, {} skipped, {} failed using {} workers",
+            status, result.getUpdated(), result.getSkipped(), result.getFailures().size(), workers);
+        return result;
+    }
+
+    private ApprovalResult approve(List<String> paths, String status, String userId) {
+        ApprovalResult result = new ApprovalResult();
+        try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(authInfo)) {
+            String auditUser = userId != null ? userId : resolver.getUserID();
+            for (int from = 0; from < paths.size(); from += batchSize) {
+                List<String> chunk = paths.subList(from, Math.min(from + batchSize, paths.size()));
+                try {
+                    int updated = process.updateAssets(resolver, chunk, status, auditUser, batchSize);
+                    result.addUpdated(updated);
+                    result.addSkipped(chunk.size() - updated);
+                } catch (PersistenceException e) {
+                    resolver.revert();
+                    for (String path : chunk) {
+                        result.addFailure(path, e.getMessage());
+                    }
+                }
+            }
+        } catch (LoginException e) {
+            for (String path : paths) {
+                result.addFailure(path, e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    static List<List<String>> partition(List<String> paths, int parts) {
+        List<List<String>> partitions = new ArrayList<>(parts);
+        int size = (paths.size() + parts - 1) / parts;
+        for (int from = 0; from < paths.size(); from += size) {
+            partitions.add(paths.subList(from, Math.min(from + size, paths.size())));
+        }
+        return partitions;
+    }
+
+    private static ExecutorService newExecutor(int workers) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory factory = task -> {
+                Thread thread = new Thread(task, "parallel-approval-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(workers, factory);
+        }
+    }
+}
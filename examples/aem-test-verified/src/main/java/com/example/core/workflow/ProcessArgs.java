@@ -0,0 +1,115 @@
+package com.example.core.workflow;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable, pre-parsed view of a workflow step's {@code PROCESS_ARGS}.
+ * Arguments are comma or newline separated {@code key=value} pairs; a bare token is
+ * taken as the {@code action}. Parsed instances are memoized per distinct args string,
+ * so repeated executions of the same step do not re-parse.
+ */
+public final class ProcessArgs {
+
+    public enum Action {
+        APPROVE("approved"),
+        REJECT("rejected"),
+        NONE(null);
+
+        private final String status;
+
+        Action(String status) {
+            this.status = status;
+        }
+
+        /**
+         * @return the {@code dam:status} value this action writes, or {@code null} for {@link #NONE}
+         */
+        public String getStatus() {
+            return status;
+        }
+
+        static Action fromValue(String value) {
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "approve":
+                    return APPROVE;
+                case "reject":
+                    return REJECT;
+                default:
+                    return NONE;
+            }
+        }
+    }
+
+    static final int MAX_CACHED = 256;
+
+    private static final Map<String, ProcessArgs> CACHE = new ConcurrentHashMap<>();
+
+    private final Action action;
+    private final Map<String, String> values;
+
+    private ProcessArgs(Action action, Map<String, String> values) {
+        this.action = action;
+        this.values = values;
+    }
+
+    /**
+     * Returns the parsed arguments for the given string, parsing it only on first use.
+     */
+    public static ProcessArgs of(String args) {
+        String key = args != null ? args : "";
+        ProcessArgs parsed = CACHE.get(key);
+        if (parsed == null) {
+            parsed = parse(key);
+            if (CACHE.size() < MAX_CACHED) {
+                ProcessArgs existing = CACHE.putIfAbsent(key, parsed);
+                if (existing != null) {
+                    parsed = existing;
+                }
+            }
+        }
+        return parsed;
+    }
+
+    static ProcessArgs parse(String args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String token : args.split("[,\\n]")) {
+            token = token.trim();
+            if (token.isEmpty()) {
+                continue;
+            }
+            int separator = token.indexOf('=');
+            if (separator < 0) {
+                values.put("action", token);
+            } else {
+                values.put(token.substring(0, separator).trim(), token.substring(separator + 1).trim());
+            }
+        }
+        String action = values.get("action");
+        return new ProcessArgs(action != null ? Action.fromValue(action) : Action.NONE,
+            Collections.unmodifiableMap(values));
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public String get(String key) {
+        return values.get(key);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+}
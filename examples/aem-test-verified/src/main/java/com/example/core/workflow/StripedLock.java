@@ -0,0 +1,30 @@
+package com.example.core.workflow;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks selected by key hash, serializing work on the same key within the
+ * JVM without keeping a lock object per key. Distinct keys may share a stripe.
+ */
+final class StripedLock {
+
+    private final ReentrantLock[] stripes;
+
+    StripedLock(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    ReentrantLock get(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    int size() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,263 @@
+package com.example.core.audit;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for ApprovalAuditLog: batching, back-pressure, retry of failed batches, no loss
+ * under concurrent producers and bounded blocking while the sink fails, plus the file
+ * and repository sinks.
+ */
+@ExtendWith(AemContextExtension.class)
+class ApprovalAuditLogTest {
+
+    private final AemContext context = new AemContext();
+    private final List<ApprovalAuditLog> logs = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        logs.forEach(ApprovalAuditLog::deactivate);
+    }
+
+    @Test
+    void testConcurrentProducersLoseNothing() throws InterruptedException {
+        MemorySink sink = new MemorySink();
+        ApprovalAuditLog log = create(sink, 100, 50, 10);
+        int threads = 8;
+        int perThread = 5000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    log.record(entry("/content/dam/t" + thread + "/a" + i + ".jpg"));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        assertTrue(log.flush());
+
+        assertEquals(threads * perThread, log.getRecorded());
+        assertEquals(threads * perThread, log.getWritten());
+        assertEquals(0, log.getPending());
+        Set<String> paths = new HashSet<>();
+        for (AuditEntry entry : sink.entries()) {
+            paths.add(entry.getAssetPath());
+        }
+        assertEquals(threads * perThread, paths.size());
+        assertTrue(sink.maxBatch.get() <= 50, "batch of " + sink.maxBatch.get());
+    }
+
+    @Test
+    void testFullBufferFlushesInCallingThread() {
+        MemorySink sink = new MemorySink();
+        sink.delayMillis = 2;
+        ApprovalAuditLog log = create(sink, 10, 5, 1000);
+
+        for (int i = 0; i < 200; i++) {
+            log.record(entry("/content/dam/a" + i + ".jpg"));
+        }
+        assertTrue(log.flush());
+
+        assertTrue(log.getCallerFlushes() > 0);
+        assertEquals(200, sink.entries().size());
+    }
+
+    @Test
+    void testFailedBatchIsRetriedInOrder() {
+        MemorySink sink = new MemorySink();
+        sink.failures.set(2);
+        ApprovalAuditLog log = create(sink, 100, 10, 60_000);
+
+        for (int i = 0; i < 5; i++) {
+            log.record(entry("/content/dam/a" + i + ".jpg"));
+        }
+        assertFalse(log.flush());
+        assertFalse(log.flush());
+        assertTrue(log.flush());
+
+        List<AuditEntry> written = sink.entries();
+        assertEquals(5, written.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals("/content/dam/a" + i + ".jpg", written.get(i).getAssetPath());
+        }
+    }
+
+    @Test
+    void testFailingSinkOverflowsInsteadOfBlocking() {
+        MemorySink sink = new MemorySink();
+        sink.failures.set(Integer.MAX_VALUE);
+        MemorySink overflow = new MemorySink();
+        ApprovalAuditLog log = create(sink, overflow, 2, 10, 60_000, 60_000);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 20; i++) {
+                log.record(entry("/content/dam/a" + i + ".jpg"));
+            }
+        });
+
+        assertEquals(20, log.getRecorded());
+        assertEquals(0, log.getWritten());
+        assertTrue(log.getOverflowed() > 0);
+        assertEquals(log.getOverflowed(), overflow.entries().size());
+        assertEquals(0, log.getDropped());
+        assertEquals(20, log.getPending() + log.getOverflowed());
+    }
+
+    @Test
+    void testEntryIsDroppedWithoutOverflowSink() {
+        MemorySink sink = new MemorySink();
+        sink.failures.set(Integer.MAX_VALUE);
+        ApprovalAuditLog log = create(sink, null, 2, 10, 60_000, 60_000);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 20; i++) {
+                log.record(entry("/content/dam/a" + i + ".jpg"));
+            }
+        });
+
+        assertTrue(log.getDropped() > 0);
+        assertEquals(20, log.getPending() + log.getDropped());
+    }
+
+    @Test
+    void testFileSinkAppendsJsonLines(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("audit/approvals.log");
+        ApprovalAuditLog log = create(new FileAuditSink(file), 100, 2, 60_000);
+
+        log.record(new AuditEntry("/content/dam/a.jpg", "editor", 0L, null, "approved"));
+        log.record(new AuditEntry("/content/dam/b.jpg", "editor", 0L, "approved", "rejected"));
+        log.record(new AuditEntry("/content/dam/c.jpg", "editor", 0L, "rejected", "approved"));
+        assertTrue(log.flush());
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertEquals("{\"asset\":\"/content/dam/a.jpg\",\"user\":\"editor\",\"time\":\"1970-01-01T00:00:00Z\","
+            + "\"from\":null,\"to\":\"approved\"}", lines.get(0));
+    }
+
+    @Test
+    void testRepositorySinkWritesOneNodePerBatch() throws IOException {
+        RepositoryAuditSink sink = new RepositoryAuditSink(context.getService(ResourceResolverFactory.class),
+            "approval-audit-writer", "/var/audit/approvals");
+
+        sink.write(Arrays.asList(
+            new AuditEntry("/content/dam/a.jpg", null, 1717150000000L, null, "approved"),
+            new AuditEntry("/content/dam/b.jpg", "editor", 1717150001000L, "approved", "rejected")));
+        sink.write(Arrays.asList(entry("/content/dam/c.jpg")));
+
+        context.resourceResolver().refresh();
+        List<Resource> nodes = new ArrayList<>();
+        collectEntries(context.resourceResolver().getResource("/var/audit/approvals"), nodes);
+        assertEquals(2, nodes.size());
+
+        Resource day = context.resourceResolver().getResource("/var/audit/approvals/2024/05/31");
+        assertNotNull(day);
+        List<Resource> sameDay = new ArrayList<>();
+        collectEntries(day, sameDay);
+        assertEquals(1, sameDay.size());
+        ValueMap batch = sameDay.get(0).getValueMap();
+        assertEquals(2L, batch.get("entryCount", Long.class).longValue());
+        assertArrayEquals(new String[] {"/content/dam/a.jpg", "/content/dam/b.jpg"},
+            batch.get("assetPath", String[].class));
+        assertArrayEquals(new String[] {"", "editor"}, batch.get("userId", String[].class));
+        assertArrayEquals(new String[] {"", "approved"}, batch.get("oldStatus", String[].class));
+        assertArrayEquals(new String[] {"approved", "rejected"}, batch.get("newStatus", String[].class));
+        Calendar[] timestamps = batch.get("timestamp", Calendar[].class);
+        assertEquals(1717150001000L, timestamps[1].getTimeInMillis());
+    }
+
+    @Test
+    void testJsonEscaping() {
+        AuditEntry entry = new AuditEntry("/content/dam/\"quoted\"\n.jpg", null, 0L, null, "approved");
+
+        assertTrue(entry.toJson().contains("\"asset\":\"/content/dam/\\\"quoted\\\"\\u000a.jpg\""));
+        assertTrue(entry.toJson().contains("\"user\":null"));
+    }
+
+    /**
+     * Creates a log without an overflow sink that blocks producers for as long as the
+     * tests take, so back-pressure never turns into dropped entries.
+     */
+    private ApprovalAuditLog create(AuditSink sink, int capacity, int batchSize, long flushIntervalMillis) {
+        return create(sink, null, capacity, batchSize, flushIntervalMillis, 60_000);
+    }
+
+    private ApprovalAuditLog create(AuditSink sink, AuditSink overflowSink, int capacity, int batchSize,
+            long flushIntervalMillis, long maxBlockMillis) {
+        ApprovalAuditLog log = new ApprovalAuditLog(sink, overflowSink, capacity, batchSize, flushIntervalMillis,
+            maxBlockMillis);
+        logs.add(log);
+        return log;
+    }
+
+    private static AuditEntry entry(String path) {
+        return new AuditEntry(path, "workflow-process-service", System.currentTimeMillis(), null, "approved");
+    }
+
+    private static void collectEntries(Resource resource, List<Resource> entries) {
+        if (resource.getValueMap().containsKey("assetPath")) {
+            entries.add(resource);
+        }
+        Iterator<Resource> children = resource.listChildren();
+        while (children.hasNext()) {
+            collectEntries(children.next(), entries);
+        }
+    }
+
+    private static final class MemorySink implements AuditSink {
+
+        private final List<AuditEntry> written = new ArrayList<>();
+        private final AtomicInteger failures = new AtomicInteger();
+        private final AtomicInteger maxBatch = new AtomicInteger();
+        private volatile long delayMillis;
+
+        @Override
+        public synchronized void write(List<AuditEntry> entries) throws IOException {
+            if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new IOException("simulated failure");
+            }
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            maxBatch.accumulateAndGet(entries.size(), Math::max);
+            written.addAll(entries);
+        }
+
+        synchronized List<AuditEntry> entries() {
+            return new ArrayList<>(written);
+        }
+    }
+}
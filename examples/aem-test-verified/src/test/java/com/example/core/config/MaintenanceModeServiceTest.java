@@ -0,0 +1,175 @@
+package com.example.core.config;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.caconfig.ConfigurationBuilder;
+import org.apache.sling.caconfig.ConfigurationResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for MaintenanceModeService: snapshot contents, refresh on configuration
+ * change and on new site roots, and per-request lookup latency.
+ */
+@ExtendWith({AemContextExtension.class, MockitoExtension.class})
+@Isolated
+class MaintenanceModeServiceTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MaintenanceModeServiceTest.class);
+
+    private final AemContext context = new AemContext();
+
+    @Mock
+    private ConfigurationResolver configurationResolver;
+
+    private final Map<String, Boolean> maintenance = new HashMap<>();
+
+    private MaintenanceModeService service;
+
+    @BeforeEach
+    void setUp() {
+        context.create().resource("/content/mysite", "sling:configRef", "/conf/mysite");
+        context.create().resource("/content/mysite/en/home");
+        context.create().resource("/content/brands/outlet", "sling:configRef", "/conf/outlet");
+        context.create().resource("/content/brands/outlet/en");
+
+        maintenance.put("/content/mysite", false);
+        maintenance.put("/content/brands/outlet", true);
+
+        when(configurationResolver.get(any(Resource.class))).thenAnswer(invocation -> {
+            Resource resource = invocation.getArgument(0);
+            boolean flag = maintenance.getOrDefault(resource.getPath(), false);
+            return builder(flag);
+        });
+
+        service = new MaintenanceModeService(context.getService(ResourceResolverFactory.class),
+            configurationResolver, config());
+    }
+
+    @Test
+    void testSnapshotContainsDiscoveredSiteRoots() {
+        Map<String, Boolean> snapshot = service.getSnapshot();
+
+        assertEquals(2, snapshot.size());
+        assertFalse(snapshot.get("/content/mysite"));
+        assertTrue(snapshot.get("/content/brands/outlet"));
+    }
+
+    @Test
+    void testIsMaintenance() {
+        assertTrue(service.isMaintenance("/content/brands/outlet"));
+        assertTrue(service.isMaintenance("/content/brands/outlet/en"));
+        assertTrue(service.isMaintenance("/content/brands/outlet.html"));
+        assertFalse(service.isMaintenance("/content/brands/outlet-archive"));
+        assertFalse(service.isMaintenance("/content/mysite/en/home"));
+        assertFalse(service.isMaintenance(null));
+    }
+
+    @Test
+    void testSiblingWithDotInNameIsNotInMaintenance() {
+        assertTrue(service.isMaintenance("/content/brands/outlet/en.print.html"));
+        assertFalse(service.isMaintenance("/content/brands/outlet.v2/en"));
+        assertFalse(service.isMaintenance("/content/brands/outlet.v2/en.html"));
+    }
+
+    @Test
+    void testRefreshOnConfigChange() {
+        maintenance.put("/content/mysite", true);
+        assertFalse(service.isMaintenance("/content/mysite/en/home"));
+
+        service.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/conf/mysite/sling:configs/com.example.core.config.SiteConfig", false)));
+
+        assertTrue(service.isMaintenance("/content/mysite/en/home"));
+    }
+
+    @Test
+    void testRefreshOnNewSiteRoot() throws Exception {
+        maintenance.put("/content/newsite", true);
+        context.create().resource("/content/newsite/en");
+        service.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.ADDED,
+            "/content/newsite", false)));
+        assertFalse(service.isMaintenance("/content/newsite/en"));
+
+        context.resourceResolver().getResource("/content/newsite").adaptTo(ModifiableValueMap.class)
+            .put("sling:configRef", "/conf/newsite");
+        context.resourceResolver().commit();
+        service.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/newsite", false)));
+
+        assertTrue(service.isMaintenance("/content/newsite/en"));
+    }
+
+    @Test
+    void testUnrelatedContentChangeDoesNotRefresh() {
+        clearInvocations(configurationResolver);
+
+        service.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/mysite/en/home", false)));
+
+        verifyNoInteractions(configurationResolver);
+    }
+
+    @Test
+    void testLookupLatency() {
+        String path = "/content/mysite/en/home/products/shoes";
+        int iterations = 1_000_000;
+        boolean result = false;
+        for (int i = 0; i < iterations; i++) {
+            result |= service.isMaintenance(path);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            result |= service.isMaintenance(path);
+        }
+        double nanosPerOp = (System.nanoTime() - start) / (double) iterations;
+        LOG.info("isMaintenance: {} ns/op", String.format("%.1f", nanosPerOp));
+
+        assertFalse(result);
+        verify(configurationResolver, times(2)).get(any(Resource.class));
+        assertTrue(nanosPerOp < 1000, "isMaintenance took " + nanosPerOp + " ns/op");
+    }
+
+    private static ConfigurationBuilder builder(boolean maintenanceMode) {
+        SiteConfig siteConfig = mock(SiteConfig.class);
+        when(siteConfig.maintenanceMode()).thenReturn(maintenanceMode);
+        ConfigurationBuilder builder = mock(ConfigurationBuilder.class);
+        when(builder.as(SiteConfig.class)).thenReturn(siteConfig);
+        return builder;
+    }
+
+    private static MaintenanceModeService.Config config() {
+        return new MaintenanceModeService.Config() {
+            @Override
+            public String searchRoot() { return "/content"; }
+            @Override
+            public int searchDepth() { return 2; }
+            @Override
+            public String subservice() { return "site-config-reader"; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return MaintenanceModeService.Config.class;
+            }
+        };
+    }
+}
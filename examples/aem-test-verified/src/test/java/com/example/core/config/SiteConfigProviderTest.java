@@ -0,0 +1,153 @@
+package com.example.core.config;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.caconfig.ConfigurationBuilder;
+import org.apache.sling.caconfig.ConfigurationResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for SiteConfigProvider: counts CA Config resolutions with and without
+ * a warm cache, LRU eviction, change-driven invalidation and resolutions racing it.
+ */
+@ExtendWith({AemContextExtension.class, MockitoExtension.class})
+class SiteConfigProviderTest {
+
+    private final AemContext context = new AemContext();
+
+    @Mock
+    private ConfigurationResolver configurationResolver;
+
+    @Mock
+    private ConfigurationBuilder configurationBuilder;
+
+    @Mock
+    private SiteConfig siteConfig;
+
+    private SiteConfigProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        context.create().resource("/content/mysite", "sling:configRef", "/conf/mysite");
+        context.create().resource("/content/mysite/en/home");
+        context.create().resource("/content/mysite/en/about");
+        context.create().resource("/content/othersite", "sling:configRef", "/conf/othersite");
+
+        lenient().when(configurationResolver.get(any(Resource.class))).thenReturn(configurationBuilder);
+        lenient().when(configurationBuilder.as(SiteConfig.class)).thenReturn(siteConfig);
+
+        provider = new SiteConfigProvider(configurationResolver, maxEntries(10));
+    }
+
+    @Test
+    void testResolvesOncePerContentRoot() {
+        int lookups = 100;
+        for (int i = 0; i < lookups; i++) {
+            assertSame(siteConfig, provider.getSiteConfig(resource("/content/mysite/en/home")));
+            assertSame(siteConfig, provider.getSiteConfig(resource("/content/mysite/en/about")));
+        }
+
+        verify(configurationResolver, times(1)).get(any(Resource.class));
+        assertEquals(1, provider.getMisses());
+        assertEquals(2 * lookups - 1, provider.getHits());
+    }
+
+    @Test
+    void testResolvesAgainstContentRoot() {
+        provider.getSiteConfig(resource("/content/mysite/en/home"));
+
+        verify(configurationResolver).get(argThat((Resource r) -> "/content/mysite".equals(r.getPath())));
+    }
+
+    @Test
+    void testConfChangeClearsCache() {
+        provider.getSiteConfig(resource("/content/mysite/en/home"));
+        provider.getSiteConfig(resource("/content/othersite"));
+        assertEquals(2, provider.size());
+
+        provider.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/conf/mysite/sling:configs/com.example.core.config.SiteConfig", false)));
+        assertEquals(0, provider.size());
+
+        provider.getSiteConfig(resource("/content/mysite/en/home"));
+        verify(configurationResolver, times(3)).get(any(Resource.class));
+    }
+
+    @Test
+    void testContentRootChangeEvictsOnlyThatRoot() {
+        provider.getSiteConfig(resource("/content/mysite/en/home"));
+        provider.getSiteConfig(resource("/content/othersite"));
+
+        provider.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/mysite", false)));
+
+        assertEquals(1, provider.size());
+    }
+
+    @Test
+    void testConfigRefOnAncestorEvictsDescendants() {
+        context.create().resource("/content/newsite/en/home");
+        provider.getSiteConfig(resource("/content/newsite/en/home"));
+        provider.getSiteConfig(resource("/content/mysite/en/home"));
+
+        provider.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/newsite", false)));
+        assertEquals(1, provider.size());
+
+        provider.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/dam/mysite/asset.jpg", false)));
+        assertEquals(1, provider.size());
+    }
+
+    @Test
+    void testConfigResolvedDuringInvalidationIsNotCached() {
+        when(configurationBuilder.as(SiteConfig.class)).thenAnswer(invocation -> {
+            provider.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+                "/content/mysite", false)));
+            return siteConfig;
+        });
+
+        assertSame(siteConfig, provider.getSiteConfig(resource("/content/mysite/en/home")));
+        assertEquals(0, provider.size());
+    }
+
+    @Test
+    void testLruBound() {
+        SiteConfigProvider small = new SiteConfigProvider(configurationResolver, maxEntries(1));
+
+        small.getSiteConfig(resource("/content/mysite/en/home"));
+        small.getSiteConfig(resource("/content/othersite"));
+        small.getSiteConfig(resource("/content/mysite/en/home"));
+
+        assertEquals(1, small.size());
+        assertEquals(3, small.getMisses());
+    }
+
+    private Resource resource(String path) {
+        return context.resourceResolver().getResource(path);
+    }
+
+    private static SiteConfigProvider.Config maxEntries(int maxEntries) {
+        return new SiteConfigProvider.Config() {
+            @Override
+            public int maxEntries() { return maxEntries; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return SiteConfigProvider.Config.class;
+            }
+        };
+    }
+}
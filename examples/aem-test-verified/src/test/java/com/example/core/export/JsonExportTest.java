@@ -0,0 +1,109 @@
+package com.example.core.export;
+
+import com.example.core.models.HeroComponent;
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import com.example.core.testing.BulkContentBuilder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the streaming JSON export: output must match Jackson serialization of the
+ * same models, which is what the Sling Models exporter produces.
+ */
+@ExtendWith(AemContextExtension.class)
+class JsonExportTest {
+
+    private final AemContext context = new AemContext();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        context.addModelsForClasses(HeroComponent.class, NavigationModel.class, NavigationItem.class);
+        context.load().json("/com/example/core/models/HeroComponentTest.json", "/content/mysite/home");
+    }
+
+    @Test
+    void testHeroMatchesJacksonExport() throws IOException {
+        HeroComponent hero = context.resourceResolver().getResource("/content/mysite/home/hero")
+            .adaptTo(HeroComponent.class);
+        assertNotNull(hero);
+
+        JsonNode streamed = mapper.readTree(JsonExport.toJson(hero));
+
+        assertEquals(mapper.valueToTree(hero), streamed);
+        assertEquals(HeroComponent.RESOURCE_TYPE, streamed.get(":type").asText());
+        assertEquals("/content/mysite/about.html", streamed.get("link").asText());
+        assertFalse(streamed.has("linkURL"));
+    }
+
+    @Test
+    void testHeroOmitsMissingProperties() throws IOException {
+        context.create().resource("/content/mysite/home/empty-hero", "title", "Only a title");
+        HeroComponent hero = context.resourceResolver().getResource("/content/mysite/home/empty-hero")
+            .adaptTo(HeroComponent.class);
+
+        JsonNode streamed = mapper.readTree(JsonExport.toJson(hero));
+
+        assertEquals(mapper.valueToTree(hero), streamed);
+        assertFalse(streamed.has("description"));
+    }
+
+    @Test
+    void testNavigationMatchesJacksonExport() throws IOException {
+        Resource nav = context.create().resource("/content/mysite/nav", "title", "Main");
+        context.create().resource(nav, "items/home", "label", "Home", "url", "/content/mysite/home");
+        context.create().resource(nav, "items/external", "label", "Docs", "url", "https://example.com/docs");
+        context.create().resource(nav, "items/nolink", "label", "Plain");
+
+        NavigationModel streamedModel = nav.adaptTo(NavigationModel.class);
+        NavigationModel jacksonModel = nav.adaptTo(NavigationModel.class);
+        JsonNode streamed = mapper.readTree(JsonExport.toJson(streamedModel));
+
+        assertEquals(mapper.valueToTree(jacksonModel), streamed);
+        assertEquals(3, streamed.get("items").size());
+        assertEquals("/content/mysite/home.html", streamed.get("items").get(0).get("link").asText());
+        assertEquals("https://example.com/docs", streamed.get("items").get(1).get("link").asText());
+    }
+
+    @Test
+    void testNavigationWithoutItemsNode() throws IOException {
+        Resource nav = context.create().resource("/content/mysite/nav", "title", "Empty");
+
+        JsonNode streamed = mapper.readTree(JsonExport.toJson(nav.adaptTo(NavigationModel.class)));
+
+        assertEquals(mapper.valueToTree(nav.adaptTo(NavigationModel.class)), streamed);
+        assertFalse(streamed.has("items"));
+        assertEquals("Empty", streamed.get("title").asText());
+    }
+
+    @Test
+    void testLargeNavigationIsStreamed() throws IOException {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver());
+        Resource nav = bulk.navigation("/content/mysite/bignav", 5000, 1);
+        bulk.commit();
+        NavigationModel model = nav.adaptTo(NavigationModel.class);
+        assertNotNull(model);
+
+        StringWriter out = new StringWriter();
+        JsonExport.write(model, out);
+        JsonNode streamed = mapper.readTree(out.toString());
+
+        assertEquals(5000, streamed.get("items").size());
+        // streaming iterates lazily and leaves the memoized item list untouched
+        assertEquals(streamed, mapper.readTree(JsonExport.toJson(model)));
+        assertEquals(5000, model.getItems().size());
+        assertEquals(streamed, mapper.readTree(JsonExport.toJson(model)));
+    }
+}
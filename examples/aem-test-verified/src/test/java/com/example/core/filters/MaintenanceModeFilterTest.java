@@ -0,0 +1,58 @@
+package com.example.core.filters;
+
+import com.example.core.config.MaintenanceModeService;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith({AemContextExtension.class, MockitoExtension.class})
+class MaintenanceModeFilterTest {
+
+    private final AemContext context = new AemContext();
+
+    @Mock
+    private MaintenanceModeService maintenanceModeService;
+
+    @Mock
+    private FilterChain chain;
+
+    private MaintenanceModeFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        context.create().resource("/content/mysite/en/home");
+        context.currentResource("/content/mysite/en/home");
+        filter = new MaintenanceModeFilter(maintenanceModeService);
+    }
+
+    @Test
+    void testRequestPassesWhenNotInMaintenance() throws Exception {
+        when(maintenanceModeService.isMaintenance("/content/mysite/en/home")).thenReturn(false);
+
+        filter.doFilter(context.request(), context.response(), chain);
+
+        verify(chain).doFilter(context.request(), context.response());
+        assertEquals(HttpServletResponse.SC_OK, context.response().getStatus());
+    }
+
+    @Test
+    void testMaintenanceReturns503() throws Exception {
+        when(maintenanceModeService.isMaintenance("/content/mysite/en/home")).thenReturn(true);
+
+        filter.doFilter(context.request(), context.response(), chain);
+
+        verifyNoInteractions(chain);
+        assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, context.response().getStatus());
+        assertEquals(MaintenanceModeFilter.RETRY_AFTER_SECONDS, context.response().getHeader("Retry-After"));
+    }
+}
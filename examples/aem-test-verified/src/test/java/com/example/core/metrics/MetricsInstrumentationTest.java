@@ -0,0 +1,120 @@
+package com.example.core.metrics;
+
+import com.adobe.granite.workflow.WorkflowException;
+import com.adobe.granite.workflow.WorkflowSession;
+import com.adobe.granite.workflow.exec.WorkItem;
+import com.adobe.granite.workflow.exec.WorkflowData;
+import com.adobe.granite.workflow.exec.WorkflowProcess;
+import com.adobe.granite.workflow.metadata.SimpleMetaDataMap;
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import com.example.core.services.HelloService;
+import com.example.core.workflow.AssetApprovalProcess;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Verifies that the instrumented hot paths report to {@link MetricsRegistry} when it is
+ * registered. The cost of the instrumentation is measured by
+ * {@code HelloServiceBenchmark} in the benchmark profile.
+ */
+@ExtendWith(AemContextExtension.class)
+class MetricsInstrumentationTest {
+
+    private final AemContext context = new AemContext();
+
+    private MetricsRegistry metrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = context.registerInjectActivateService(new MetricsRegistry());
+        context.addModelsForClasses(NavigationModel.class, NavigationItem.class);
+    }
+
+    @Test
+    void testRegistryIsExposedAsMBean() {
+        MetricsRegistryMBean mbean = context.getService(MetricsRegistryMBean.class);
+        assertSame(metrics, mbean);
+    }
+
+    @Test
+    void testAssetApprovalRecordsExecution() throws WorkflowException {
+        context.create().resource("/content/dam/metrics/image.jpg", "jcr:primaryType", "dam:Asset");
+        context.create().resource("/content/dam/metrics/image.jpg/jcr:content/metadata");
+        WorkflowProcess process = context.registerInjectActivateService(new AssetApprovalProcess());
+
+        WorkItem workItem = mock(WorkItem.class);
+        WorkflowData workflowData = mock(WorkflowData.class);
+        WorkflowSession session = mock(WorkflowSession.class);
+        when(workItem.getWorkflowData()).thenReturn(workflowData);
+        when(workflowData.getPayload()).thenReturn("/content/dam/metrics/image.jpg");
+        when(session.adaptTo(ResourceResolver.class)).thenReturn(context.resourceResolver());
+        SimpleMetaDataMap args = new SimpleMetaDataMap();
+        args.put("PROCESS_ARGS", "action=approve");
+
+        process.execute(workItem, session, args);
+
+        assertEquals(1, metrics.getCount("workflow.approval.execute"));
+        assertEquals(1, metrics.getCount("workflow.approval.updated"));
+        assertEquals(0, metrics.getCount("workflow.approval.failures"));
+        assertTrue(metrics.timer("workflow.approval.execute").getMaxNanos() > 0);
+    }
+
+    @Test
+    void testAssetApprovalRecordsFailures() {
+        WorkflowProcess process = context.registerInjectActivateService(new AssetApprovalProcess());
+        WorkItem workItem = mock(WorkItem.class);
+        WorkflowData workflowData = mock(WorkflowData.class);
+        WorkflowSession session = mock(WorkflowSession.class);
+        when(workItem.getWorkflowData()).thenReturn(workflowData);
+        when(workflowData.getPayload()).thenReturn("/content/dam/missing.jpg");
+        when(session.adaptTo(ResourceResolver.class)).thenReturn(context.resourceResolver());
+
+        assertThrows(WorkflowException.class, () -> process.execute(workItem, session, new SimpleMetaDataMap()));
+
+        assertEquals(1, metrics.getCount("workflow.approval.failures"));
+        assertEquals(1, metrics.getCount("workflow.approval.execute"));
+    }
+
+    @Test
+    void testNavigationModelRecordsAdaptationAndItems() {
+        context.create().resource("/content/nav/items/home", "label", "Home", "url", "/content/home");
+        context.create().resource("/content/nav/items/about", "label", "About", "url", "/content/about");
+        Resource nav = context.resourceResolver().getResource("/content/nav");
+
+        NavigationModel model = nav.adaptTo(NavigationModel.class);
+        assertNotNull(model);
+        assertTrue(model.hasItems());
+        assertEquals(0, metrics.getCount("navigation.model.items"));
+
+        assertEquals(2, model.getItems().size());
+        model.getItems();
+
+        assertEquals(1, metrics.getCount("navigation.model.adapted"));
+        assertEquals(1, metrics.getCount("navigation.model.items"));
+    }
+
+    @Test
+    void testHelloServiceRecordsCallsAndCacheOutcome() {
+        HelloService service = context.registerInjectActivateService(new HelloService());
+
+        service.getMessage("Alice");
+        service.getMessage("Alice");
+        service.getMessage("Bob");
+        service.getMessage(null);
+
+        assertEquals(3, metrics.getCount("hello.message"));
+        assertEquals(1, metrics.getCount("hello.cache.hits"));
+        assertEquals(2, metrics.getCount("hello.cache.misses"));
+        assertEquals(1, service.getCacheHits());
+        assertEquals(2, service.getCacheMisses());
+    }
+}
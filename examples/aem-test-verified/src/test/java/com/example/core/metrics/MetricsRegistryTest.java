@@ -0,0 +1,78 @@
+package com.example.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void testMetricsAreCreatedOnceByName() {
+        assertSame(registry.counter("a"), registry.counter("a"));
+        assertSame(registry.timer("b"), registry.timer("b"));
+        assertSame(registry.histogram("c"), registry.histogram("c"));
+        assertArrayEquals(new String[] {"a", "b", "c"}, registry.getMetricNames());
+    }
+
+    @Test
+    void testCounterIsThreadSafe() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    registry.counter("requests").inc();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(40_000, registry.getCount("requests"));
+    }
+
+    @Test
+    void testHistogramPercentilesAreWithinBucketResolution() {
+        Histogram histogram = registry.histogram("sizes");
+        for (int i = 1; i <= 1000; i++) {
+            histogram.update(i);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 0.001);
+        long p50 = histogram.getPercentile(50);
+        assertTrue(p50 >= 500 && p50 < 1024, "p50 " + p50);
+        assertEquals(1000, histogram.getPercentile(100));
+        assertEquals(0, new Histogram().getPercentile(99));
+    }
+
+    @Test
+    void testTimerReportsMicrosOverJmxView() {
+        Timer timer = registry.timer("render");
+        timer.update(TimeUnit.MICROSECONDS.toNanos(100));
+        timer.update(TimeUnit.MICROSECONDS.toNanos(300));
+
+        assertEquals(2, registry.getCount("render"));
+        assertEquals(200.0, registry.getMeanMicros("render"), 0.001);
+        assertTrue(registry.getPercentileMicros("render", 99) >= 262);
+        assertEquals(0, registry.getCount("unknown"));
+    }
+
+    @Test
+    void testResetClearsValuesButKeepsNames() {
+        registry.counter("a").inc(5);
+        registry.timer("b").update(10);
+
+        registry.reset();
+
+        assertEquals(0, registry.getCount("a"));
+        assertEquals(0, registry.getCount("b"));
+        assertEquals(2, registry.getMetricNames().length);
+    }
+}
@@ -1,7 +1,8 @@
 package com.example.core.models;
 
-import io.wcm.testing.mock.aem.junit5.AemContext;
-import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import com.example.core.testing.FixtureCompiler;
+import com.example.core.testing.SharedAemContext;
+import com.example.core.testing.SharedAemContextExtension;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.models.factory.ModelFactory;
 import org.junit.jupiter.api.BeforeEach;
@@ -10,15 +11,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@ExtendWith(AemContextExtension.class)
+@ExtendWith(SharedAemContextExtension.class)
 class HeroComponentTest {
 
-    private final AemContext context = new AemContext();
+    private final SharedAemContext context = SharedAemContext.get();
 
     @BeforeEach
     void setUp() {
-        context.load().json("/com/example/core/models/HeroComponentTest.json", "/content/mysite/home");
-        context.addModelsForClasses(HeroComponent.class);
+        FixtureCompiler.load(context, "/com/example/core/models/HeroComponentTest.json", "/content/mysite/home");
     }
 
     @Test
@@ -35,11 +35,32 @@ class HeroComponentTest {
         assertEquals("Learn More", hero.getLinkText());
         assertEquals("/content/mysite/about.html", hero.getLinkURL());
         assertTrue(hero.hasContent());
+
+        HeroView view = hero.getView();
+        assertEquals("Welcome to Our Site", view.getTitle());
+        assertEquals("/content/mysite/about.html", view.getLinkURL());
+        assertTrue(view.hasContent());
+    }
+
+    @Test
+    void testViewAppendsHtmlToContentPaths() {
+        context.create().resource("/content/mysite/home/hero2",
+            "title", "Hero",
+            "description", "",
+            "linkText", "Contact",
+            "linkURL", "/content/mysite/contact");
+
+        HeroComponent hero = context.resourceResolver().getResource("/content/mysite/home/hero2")
+            .adaptTo(HeroComponent.class);
+
+        assertNotNull(hero);
+        assertEquals("/content/mysite/contact", hero.getLinkURL());
+        assertEquals("/content/mysite/contact.html", hero.getView().getLinkURL());
     }
 
     @Test
     void testHeroComponentWithEmptyTitle() {
-        context.load().json("/com/example/core/models/HeroComponentEmpty.json", "/content/mysite/empty");
+        FixtureCompiler.load(context, "/com/example/core/models/HeroComponentEmpty.json", "/content/mysite/empty");
         Resource resource = context.resourceResolver().getResource("/content/mysite/empty/hero");
         assertNotNull(resource);
 
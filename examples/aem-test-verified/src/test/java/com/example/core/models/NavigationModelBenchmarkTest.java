@@ -0,0 +1,95 @@
+package com.example.core.models;
+
+import com.example.core.testing.BulkContentBuilder;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.models.factory.ModelFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares model-creation latency and allocations for the lazy header path
+ * (hasItems + first page) against materializing every item.
+ */
+@ExtendWith(AemContextExtension.class)
+@Isolated
+class NavigationModelBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(NavigationModelBenchmarkTest.class);
+
+    private static final int HEADER_ITEMS = 5;
+
+    private final AemContext context = new AemContext();
+
+    private ModelFactory modelFactory;
+
+    @BeforeEach
+    void setUp() {
+        context.addModelsForClasses(NavigationModel.class, NavigationItem.class);
+        modelFactory = context.getService(ModelFactory.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1000, 10000})
+    void testLazyVersusEagerItems(int childCount) {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver());
+        Resource nav = bulk.navigation("/content/nav-" + childCount, childCount, 1);
+        bulk.commit();
+
+        // Warm up both paths
+        for (int i = 0; i < 3; i++) {
+            renderHeader(nav);
+            renderAll(nav);
+        }
+
+        long lazyStart = System.nanoTime();
+        long lazyBytes = allocatedBytes();
+        renderHeader(nav);
+        lazyBytes = allocatedBytes() - lazyBytes;
+        long lazyNanos = System.nanoTime() - lazyStart;
+
+        long eagerStart = System.nanoTime();
+        long eagerBytes = allocatedBytes();
+        renderAll(nav);
+        eagerBytes = allocatedBytes() - eagerBytes;
+        long eagerNanos = System.nanoTime() - eagerStart;
+
+        LOG.info("{} children: lazy {} us / {} bytes, eager {} us / {} bytes",
+            childCount, lazyNanos / 1000, lazyBytes, eagerNanos / 1000, eagerBytes);
+
+        if (childCount >= 1000 && allocatedBytes() >= 0) {
+            assertTrue(lazyBytes < eagerBytes,
+                "Lazy path allocated " + lazyBytes + " bytes, eager " + eagerBytes);
+        }
+    }
+
+    private void renderHeader(Resource nav) {
+        NavigationModel model = modelFactory.createModel(nav, NavigationModel.class);
+        assertTrue(model.hasItems());
+        assertEquals(HEADER_ITEMS, model.getItems(0, HEADER_ITEMS).size());
+    }
+
+    private void renderAll(Resource nav) {
+        NavigationModel model = modelFactory.createModel(nav, NavigationModel.class);
+        assertTrue(model.hasItems());
+        assertFalse(model.getItems().isEmpty());
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
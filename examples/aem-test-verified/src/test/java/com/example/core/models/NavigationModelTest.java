@@ -1,13 +1,15 @@
 package com.example.core.models;
 
-import io.wcm.testing.mock.aem.junit5.AemContext;
-import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import com.example.core.testing.SharedAemContext;
+import com.example.core.testing.SharedAemContextExtension;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.models.factory.ModelFactory;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.Iterator;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -16,15 +18,10 @@ import static org.junit.jupiter.api.Assertions.*;
  * - @ChildResource injection
  * - @ValueMapValue with DefaultInjectionStrategy.OPTIONAL
  */
-@ExtendWith(AemContextExtension.class)
+@ExtendWith(SharedAemContextExtension.class)
 class NavigationModelTest {
 
-    private final AemContext context = new AemContext();
-
-    @BeforeEach
-    void setUp() {
-        context.addModelsForClasses(NavigationModel.class, NavigationItem.class);
-    }
+    private final SharedAemContext context = SharedAemContext.get();
 
     @Test
     void testSelfInjection() {
@@ -110,4 +107,55 @@ class NavigationModelTest {
         assertNull(model.getTitle());
         assertEquals("/content/minimal-nav", model.getPath());
     }
+
+    @Test
+    void testPagedItems() {
+        Resource nav = context.create().resource("/content/paged-nav",
+            "sling:resourceType", "mysite/components/navigation");
+        Resource items = context.create().resource(nav, "items");
+        for (int i = 0; i < 10; i++) {
+            context.create().resource(items, "item" + i,
+                "label", "Item " + i,
+                "url", "/content/item" + i);
+        }
+
+        NavigationModel model = context.getService(ModelFactory.class).createModel(nav, NavigationModel.class);
+
+        List<NavigationItem> page = model.getItems(4, 3);
+        assertEquals(3, page.size());
+        assertEquals("Item 4", page.get(0).getLabel());
+        assertEquals("Item 6", page.get(2).getLabel());
+
+        assertEquals(2, model.getItems(8, 5).size());
+        assertTrue(model.getItems(20, 5).isEmpty());
+        assertTrue(model.getItems(0, 0).isEmpty());
+
+        // Paging over the memoized list returns the same slice
+        assertEquals(10, model.getItems().size());
+        assertEquals("Item 4", model.getItems(4, 3).get(0).getLabel());
+    }
+
+    @Test
+    void testIterateItemsIsLazy() {
+        Resource nav = context.create().resource("/content/lazy-nav",
+            "sling:resourceType", "mysite/components/navigation");
+        Resource items = context.create().resource(nav, "items");
+        context.create().resource(items, "item1",
+            "label", "Home",
+            "url", "/content/home");
+        // Missing required url: cannot be adapted and is skipped
+        context.create().resource(items, "broken",
+            "label", "Broken");
+        context.create().resource(items, "item2",
+            "label", "About",
+            "url", "/content/about");
+
+        NavigationModel model = context.getService(ModelFactory.class).createModel(nav, NavigationModel.class);
+        assertTrue(model.hasItems());
+
+        Iterator<NavigationItem> iterator = model.iterateItems();
+        assertEquals("Home", iterator.next().getLabel());
+        assertEquals("About", iterator.next().getLabel());
+        assertFalse(iterator.hasNext());
+    }
 }
@@ -0,0 +1,187 @@
+package com.example.core.models;
+
+import com.example.core.config.SiteConfig;
+import com.example.core.config.SiteConfigProvider;
+import com.example.core.services.LinkResolver;
+import com.example.core.services.NavigationTreeCache;
+import com.example.core.testing.BulkContentBuilder;
+import com.example.core.testing.LoadHarness;
+import com.example.core.testing.LoadReport;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.caconfig.ConfigurationBuilder;
+import org.apache.sling.caconfig.ConfigurationResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Concurrent page renders over a populated repository: each simulated request reads the
+ * site configuration, adapts the page's hero and the site's header navigation and
+ * resolves every link. Compares the uncached path with the caches registered, on one
+ * thread and under contention. Threads and durations can be raised for local runs with
+ * {@code -Dload.threads}, {@code -Dload.warmup.millis} and {@code -Dload.duration.millis}.
+ */
+@ExtendWith(AemContextExtension.class)
+@Isolated
+class RenderLoadTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RenderLoadTest.class);
+
+    private static final int SITES = 4;
+    private static final int PAGES_PER_SITE = 250;
+    private static final int NAVIGATION_ITEMS = 8;
+    private static final String SITE_CONFIG_PATH = "/sling:configs/" + SiteConfig.class.getName();
+
+    private final AemContext context = new AemContext();
+
+    private final int threads = Integer.getInteger("load.threads", 4);
+    private final long warmupMillis = Long.getLong("load.warmup.millis", 300);
+    private final long durationMillis = Long.getLong("load.duration.millis", 1500);
+
+    private List<String> pages;
+    private ConfigurationResolver configurationResolver;
+
+    @BeforeEach
+    void setUp() throws PersistenceException {
+        context.addModelsForClasses(HeroComponent.class, NavigationModel.class, NavigationItem.class);
+        ResourceResolver resolver = context.resourceResolver();
+        BulkContentBuilder bulk = new BulkContentBuilder(resolver).folderSize(50);
+        pages = new ArrayList<>();
+        for (int s = 0; s < SITES; s++) {
+            String root = "/content/site" + s;
+            context.create().resource(root, SiteConfigProvider.CONFIG_REF, "/conf/site" + s);
+            context.create().resource("/conf/site" + s + SITE_CONFIG_PATH, "siteName", "Site " + s);
+            bulk.navigation(root + "/header", NAVIGATION_ITEMS, 2);
+            for (String page : bulk.pages(root, PAGES_PER_SITE)) {
+                context.create().resource(page + "/jcr:content/hero",
+                    "sling:resourceType", HeroComponent.RESOURCE_TYPE,
+                    "title", "Hero of " + page,
+                    "linkText", "More",
+                    "linkURL", root + "/section0/page0");
+                pages.add(page);
+            }
+        }
+        bulk.commit();
+        resolver.commit();
+
+        configurationResolver = configurationResolver();
+    }
+
+    @Test
+    void testConcurrentRendersUncachedAndCached() throws InterruptedException {
+        LoadHarness harness = new LoadHarness(context.getService(ResourceResolverFactory.class))
+            .warmupMillis(warmupMillis)
+            .durationMillis(durationMillis);
+        List<LoadReport> reports = new ArrayList<>();
+
+        // every request resolves configuration and builds the tree and links itself
+        PageRender uncached = new PageRender(root -> configurationResolver.get(root).as(SiteConfig.class));
+        reports.add(harness.threads(1).run("uncached", pages, uncached));
+        reports.add(harness.threads(threads).run("uncached", pages, uncached));
+
+        SiteConfigProvider siteConfigProvider = new SiteConfigProvider(configurationResolver, maxEntries(100));
+        context.registerService(NavigationTreeCache.class, new NavigationTreeCache());
+        context.registerService(LinkResolver.class, new LinkResolver(linkConfig()));
+        PageRender cached = new PageRender(siteConfigProvider::getSiteConfig);
+        reports.add(harness.threads(1).run("cached", pages, cached));
+        reports.add(harness.threads(threads).run("cached", pages, cached));
+
+        reports.forEach(report -> LOG.info("{}", report));
+        for (LoadReport report : reports) {
+            assertEquals(0, report.getErrors(), () -> report.getName() + ": " + report.getFirstError());
+            assertTrue(report.getRequests() > 0, report.getName());
+            assertTrue(report.getPercentileNanos(50) <= report.getPercentileNanos(99));
+            assertTrue(report.getPercentileNanos(99) <= report.getPercentileNanos(99.9));
+            assertTrue(report.getPercentileNanos(99.9) <= report.getMaxNanos());
+        }
+        assertTrue(siteConfigProvider.getHits() > 0);
+    }
+
+    /**
+     * Stand-in for CA Config that reads the configuration resource on every call, the
+     * way uncached resolution does. Stub-only mocks do not record invocations, so they
+     * stay flat in memory under load.
+     */
+    private ConfigurationResolver configurationResolver() {
+        SiteConfig siteConfig = mock(SiteConfig.class, withSettings().stubOnly());
+        ConfigurationBuilder builder = mock(ConfigurationBuilder.class, withSettings().stubOnly());
+        when(builder.as(SiteConfig.class)).thenReturn(siteConfig);
+        ConfigurationResolver resolver = mock(ConfigurationResolver.class, withSettings().stubOnly());
+        when(resolver.get(any(Resource.class))).thenAnswer(invocation -> {
+            Resource root = invocation.getArgument(0);
+            String configRef = root.getValueMap().get(SiteConfigProvider.CONFIG_REF, String.class);
+            Resource config = root.getResourceResolver().getResource(configRef + SITE_CONFIG_PATH);
+            assertNotNull(config.getValueMap().get("siteName", String.class));
+            return builder;
+        });
+        return resolver;
+    }
+
+    private static LinkResolver.Config linkConfig() {
+        return new LinkResolver.Config() {
+            @Override
+            public int maxEntries() { return 10_000; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return LinkResolver.Config.class;
+            }
+        };
+    }
+
+    private static SiteConfigProvider.Config maxEntries(int maxEntries) {
+        return new SiteConfigProvider.Config() {
+            @Override
+            public int maxEntries() { return maxEntries; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return SiteConfigProvider.Config.class;
+            }
+        };
+    }
+
+    /**
+     * One page render; the strategy only differs in how the site configuration is read.
+     */
+    private static final class PageRender implements LoadHarness.Render {
+
+        private final Function<Resource, SiteConfig> siteConfig;
+
+        PageRender(Function<Resource, SiteConfig> siteConfig) {
+            this.siteConfig = siteConfig;
+        }
+
+        @Override
+        public void render(ResourceResolver resolver, Resource page) {
+            String path = page.getPath();
+            Resource root = resolver.getResource(path.substring(0, path.indexOf('/', "/content/".length())));
+            assertNotNull(siteConfig.apply(root));
+
+            HeroComponent hero = page.getChild("jcr:content/hero").adaptTo(HeroComponent.class);
+            assertTrue(hero.hasContent());
+            assertNotNull(hero.getLink());
+
+            NavigationModel navigation = root.getChild("header").adaptTo(NavigationModel.class);
+            assertEquals(NAVIGATION_ITEMS, navigation.getTree().size());
+            for (NavigationItem item : navigation.getItems()) {
+                assertNotNull(item.getLink());
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.core.models;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.testing.mock.sling.servlet.MockSlingHttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for RequestModelCache via HeroComponent.forRequest: one adaptation per resource
+ * per request, plus allocations of cached versus repeated adaptation.
+ */
+@ExtendWith(AemContextExtension.class)
+@Isolated
+class RequestModelCacheTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestModelCacheTest.class);
+
+    private final AemContext context = new AemContext();
+
+    private Resource hero;
+
+    @BeforeEach
+    void setUp() {
+        context.addModelsForClasses(HeroComponent.class);
+        context.load().json("/com/example/core/models/HeroComponentTest.json", "/content/mysite/home");
+        hero = context.resourceResolver().getResource("/content/mysite/home/hero");
+    }
+
+    @Test
+    void testSingleAdaptationPerRequest() {
+        HeroComponent first = HeroComponent.forRequest(context.request(), hero);
+        // Another script resolving the same resource gets a different Resource instance
+        Resource sameHero = context.resourceResolver().getResource("/content/mysite/home/hero");
+        HeroComponent second = HeroComponent.forRequest(context.request(), sameHero);
+
+        assertNotNull(first);
+        assertSame(first, second);
+        assertSame(first.getView(), second.getView());
+    }
+
+    @Test
+    void testNewRequestAdaptsAgain() {
+        HeroComponent first = HeroComponent.forRequest(context.request(), hero);
+        HeroComponent other = HeroComponent.forRequest(newRequest(), hero);
+
+        assertNotSame(first, other);
+    }
+
+    @Test
+    void testUnadaptableResourceIsCachedAsNull() {
+        Resource plain = context.create().resource("/content/mysite/home/plain");
+
+        assertNull(RequestModelCache.get(context.request(), plain, HeroComponent.class));
+        assertNull(RequestModelCache.get(context.request(), plain, HeroComponent.class));
+    }
+
+    @Test
+    void testCachedLookupAllocatesLessThanAdaptation() {
+        int renders = 1000;
+        MockSlingHttpServletRequest request = newRequest();
+        for (int i = 0; i < renders; i++) {
+            HeroComponent.forRequest(request, hero).getView().getLinkURL();
+            hero.adaptTo(HeroComponent.class).getView().getLinkURL();
+        }
+
+        long cachedBytes = allocatedBytes();
+        for (int i = 0; i < renders; i++) {
+            HeroComponent.forRequest(request, hero).getView().getLinkURL();
+        }
+        cachedBytes = allocatedBytes() - cachedBytes;
+
+        long adaptBytes = allocatedBytes();
+        for (int i = 0; i < renders; i++) {
+            hero.adaptTo(HeroComponent.class).getView().getLinkURL();
+        }
+        adaptBytes = allocatedBytes() - adaptBytes;
+
+        LOG.info("{} hero renders: request cache {} bytes, adaptTo {} bytes", renders, cachedBytes, adaptBytes);
+        if (allocatedBytes() >= 0) {
+            assertTrue(cachedBytes < adaptBytes);
+        }
+    }
+
+    private MockSlingHttpServletRequest newRequest() {
+        return new MockSlingHttpServletRequest(context.resourceResolver(), context.bundleContext());
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.core.services;
+
+import com.example.core.testing.BulkContentBuilder;
+import com.example.core.workflow.AssetApprovalProcess;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChange.ChangeType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for DamStatusIndex: background initial population, incremental updates from
+ * resource changes, pruning of empty counters, and consistency with a freshly built
+ * index after approve/reject bursts.
+ */
+@ExtendWith(AemContextExtension.class)
+class DamStatusIndexTest {
+
+    private static final String ROOT = "/content/dam/index";
+
+    private final AemContext context = new AemContext();
+
+    private List<String> assets;
+
+    @BeforeEach
+    void setUp() throws PersistenceException {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver()).folderSize(100);
+        assets = bulk.assets(ROOT, 300);
+        bulk.commit();
+        setStatus(assets.get(0), "approved");
+        setStatus(assets.get(1), "rejected");
+        setStatus(assets.get(150), "approved");
+        context.resourceResolver().commit();
+    }
+
+    @Test
+    void testRebuildIndexesExistingStatuses() {
+        DamStatusIndex index = createIndex();
+
+        assertEquals(3, index.size());
+        assertEquals("approved", index.getStatus(assets.get(0)));
+        assertNull(index.getStatus(assets.get(2)));
+        assertEquals(2, index.getCount(ROOT, "approved"));
+        assertEquals(1, index.getCount(ROOT + "/folder0", "approved"));
+        assertEquals(1, index.getCount(ROOT, "rejected"));
+        assertEquals(0, index.getCount("/content/dam", "rejected"));
+        assertEquals(Arrays.asList(assets.get(0), assets.get(150)), index.getAssets(ROOT, "approved"));
+        assertEquals(Collections.singletonList(assets.get(150)), index.getAssets(ROOT + "/folder1", "approved"));
+        assertTrue(index.getCounts(ROOT + "/folder2").isEmpty());
+    }
+
+    @Test
+    void testNotReadyUntilBackgroundBuildCompletes() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ResourceResolverFactory factory = context.getService(ResourceResolverFactory.class);
+        ResourceResolverFactory slow = mock(ResourceResolverFactory.class);
+        when(slow.getServiceResourceResolver(anyMap())).thenAnswer(invocation -> {
+            if ("dam-status-index".equals(Thread.currentThread().getName())) {
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return factory.getServiceResourceResolver(invocation.getArgument(0));
+        });
+
+        DamStatusIndex index = new DamStatusIndex(slow, config());
+        try {
+            assertFalse(index.isReady());
+            assertEquals(0, index.getCount(ROOT, "approved"));
+            setStatus(assets.get(2), "rejected");
+            context.resourceResolver().commit();
+            index.onChange(Collections.singletonList(metadataChanged(assets.get(2))));
+
+            release.countDown();
+            assertTrue(index.awaitReady(10, TimeUnit.SECONDS));
+            assertEquals(2, index.getCount(ROOT, "approved"));
+            assertEquals(2, index.getCount(ROOT, "rejected"));
+        } finally {
+            release.countDown();
+            index.deactivate();
+        }
+    }
+
+    @Test
+    void testStatusChangeUpdatesCounts() throws PersistenceException {
+        DamStatusIndex index = createIndex();
+
+        setStatus(assets.get(0), "rejected");
+        context.resourceResolver().commit();
+        index.onChange(Collections.singletonList(metadataChanged(assets.get(0))));
+
+        assertEquals("rejected", index.getStatus(assets.get(0)));
+        assertEquals(1, index.getCount(ROOT, "approved"));
+        assertEquals(2, index.getCount(ROOT + "/folder0", "rejected"));
+        assertFalse(index.getAssets(ROOT, "approved").contains(assets.get(0)));
+    }
+
+    @Test
+    void testApproveRejectBurstsStayConsistent() throws PersistenceException {
+        DamStatusIndex index = createIndex();
+        AssetApprovalProcess process = new AssetApprovalProcess();
+        ResourceResolver resolver = context.resourceResolver();
+
+        process.updateFolder(resolver, resolver.getResource(ROOT + "/folder0"), "approved");
+        process.updateAssets(resolver, assets.subList(50, 250), "rejected");
+        process.updateAssets(resolver, assets.subList(200, 220), "approved");
+
+        List<ResourceChange> changes = new ArrayList<>();
+        for (String asset : assets.subList(0, 250)) {
+            changes.add(metadataChanged(asset));
+        }
+        index.onChange(changes);
+
+        DamStatusIndex rebuilt = createIndex();
+        assertEquals(rebuilt.size(), index.size());
+        for (String folder : Arrays.asList(ROOT, ROOT + "/folder0", ROOT + "/folder1", ROOT + "/folder2")) {
+            assertEquals(rebuilt.getCounts(folder), index.getCounts(folder), folder);
+            assertEquals(rebuilt.getAssets(folder, "rejected"), index.getAssets(folder, "rejected"), folder);
+        }
+        assertEquals(70, index.getCount(ROOT, "approved"));
+        assertEquals(180, index.getCount(ROOT, "rejected"));
+    }
+
+    @Test
+    void testRemovedFolderIsDropped() throws PersistenceException {
+        DamStatusIndex index = createIndex();
+
+        context.resourceResolver().delete(context.resourceResolver().getResource(ROOT + "/folder1"));
+        context.resourceResolver().commit();
+        index.onChange(Collections.singletonList(new ResourceChange(ChangeType.REMOVED, ROOT + "/folder1", false)));
+
+        assertEquals(2, index.size());
+        assertNull(index.getStatus(assets.get(150)));
+        assertEquals(1, index.getCount(ROOT, "approved"));
+        assertTrue(index.getCounts(ROOT + "/folder1").isEmpty());
+        // ROOT and folder0
+        assertEquals(2, index.folderCount());
+    }
+
+    @Test
+    void testCountersDroppingToZeroArePruned() throws PersistenceException {
+        DamStatusIndex index = createIndex();
+
+        setStatus(assets.get(1), "approved");
+        context.resourceResolver().commit();
+        index.onChange(Collections.singletonList(metadataChanged(assets.get(1))));
+        assertFalse(index.getCounts(ROOT).containsKey("rejected"));
+
+        for (String asset : Arrays.asList(assets.get(0), assets.get(1), assets.get(150))) {
+            context.resourceResolver().getResource(asset + "/jcr:content/metadata")
+                .adaptTo(ModifiableValueMap.class).remove("dam:status");
+        }
+        context.resourceResolver().commit();
+        index.onChange(Arrays.asList(metadataChanged(assets.get(0)), metadataChanged(assets.get(1)),
+            metadataChanged(assets.get(150))));
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.folderCount());
+    }
+
+    @Test
+    void testAddedFolderIsScanned() throws PersistenceException {
+        DamStatusIndex index = createIndex();
+
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver());
+        List<String> added = bulk.assets(ROOT + "/incoming", 5);
+        bulk.commit();
+        for (String asset : added) {
+            setStatus(asset, "rejected");
+        }
+        context.resourceResolver().commit();
+        index.onChange(Collections.singletonList(new ResourceChange(ChangeType.ADDED, ROOT + "/incoming", false)));
+
+        assertEquals(5, index.getCount(ROOT + "/incoming", "rejected"));
+        assertEquals(6, index.getCount(ROOT, "rejected"));
+    }
+
+    @Test
+    void testChangesOutsideRootAreIgnored() {
+        DamStatusIndex index = createIndex();
+
+        index.onChange(Collections.singletonList(new ResourceChange(ChangeType.REMOVED, "/content/dam", false)));
+
+        assertEquals(3, index.size());
+    }
+
+    private DamStatusIndex createIndex() {
+        DamStatusIndex index = new DamStatusIndex(context.getService(ResourceResolverFactory.class), config());
+        try {
+            assertTrue(index.awaitReady(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+        return index;
+    }
+
+    private static DamStatusIndex.Config config() {
+        return new DamStatusIndex.Config() {
+            @Override
+            public String root() { return ROOT; }
+            @Override
+            public String subservice() { return "dam-status-reader"; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return DamStatusIndex.Config.class;
+            }
+        };
+    }
+
+    private void setStatus(String asset, String status) {
+        context.resourceResolver().getResource(asset + "/jcr:content/metadata")
+            .adaptTo(ModifiableValueMap.class).put("dam:status", status);
+    }
+
+    private static ResourceChange metadataChanged(String asset) {
+        return new ResourceChange(ChangeType.CHANGED, asset + "/jcr:content/metadata", false);
+    }
+}
@@ -1,14 +1,18 @@
 package com.example.core.services;
 
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
 import org.junit.jupiter.api.Test;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.junit.jupiter.api.Assertions.*;
 
-@ExtendWith(MockitoExtension.class)
+@ExtendWith({AemContextExtension.class, MockitoExtension.class})
 class HelloServiceTest {
 
+    private final AemContext context = new AemContext();
+
     @Test
     void testGetMessageWithName() {
         HelloService service = new HelloService();
@@ -35,4 +39,65 @@ class HelloServiceTest {
         HelloService service = new HelloService();
         assertEquals(42, service.getCount());
     }
+
+    @Test
+    void testDefaultConfigurationCachesMessages() {
+        HelloService service = context.registerInjectActivateService(new HelloService());
+
+        String first = service.getMessage("Alice");
+        String second = service.getMessage("Alice");
+
+        assertEquals("Hello, Alice!", second);
+        assertSame(first, second);
+        assertEquals(1, service.getCacheMisses());
+        assertEquals(1, service.getCacheHits());
+        assertEquals(1, service.getCacheSize());
+    }
+
+    @Test
+    void testCacheSizeIsConfigurable() {
+        HelloService service = context.registerInjectActivateService(new HelloService(),
+            "cacheSize", 2);
+
+        service.getMessage("Alice");
+        service.getMessage("Bob");
+        service.getMessage("Carol");
+        service.getMessage("Alice");
+
+        assertEquals(2, service.getCacheSize());
+        assertEquals(4, service.getCacheMisses());
+        assertEquals(0, service.getCacheHits());
+    }
+
+    @Test
+    void testCacheCanBeDisabled() {
+        HelloService service = context.registerInjectActivateService(new HelloService(),
+            "cacheEnabled", false);
+
+        assertEquals("Hello, Alice!", service.getMessage("Alice"));
+        assertEquals("Hello, Alice!", service.getMessage("Alice"));
+
+        assertEquals(0, service.getCacheSize());
+        assertEquals(0, service.getCacheHits());
+        assertEquals(0, service.getCacheMisses());
+    }
+
+    @Test
+    void testServiceIsRegistered() {
+        context.registerInjectActivateService(new HelloService(), "cacheTtlSeconds", 0L);
+
+        HelloService service = context.getService(HelloService.class);
+        assertNotNull(service);
+        assertEquals("Hello, Bob!", service.getMessage("Bob"));
+    }
+
+    @Test
+    void testPluggableCache() {
+        LruMessageCache cache = new LruMessageCache(10, 0);
+        HelloService service = new HelloService(cache);
+
+        service.getMessage("Alice");
+
+        assertEquals("Hello, Alice!", cache.get("Alice"));
+    }
 }
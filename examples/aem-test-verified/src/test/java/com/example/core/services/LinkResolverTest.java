@@ -0,0 +1,261 @@
+package com.example.core.services;
+
+import com.example.core.models.HeroComponent;
+import com.example.core.models.NavigationItem;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.wrappers.ResourceResolverWrapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LinkResolver: link conventions, cache hits, LRU bounds, subtree and
+ * mapping-only invalidation including vanity paths on {@code jcr:content}, model wiring
+ * and hit rate over thousands of links.
+ */
+@ExtendWith(AemContextExtension.class)
+class LinkResolverTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LinkResolverTest.class);
+
+    private final AemContext context = new AemContext();
+
+    private LinkResolver linkResolver;
+
+    @BeforeEach
+    void setUp() {
+        context.addModelsForClasses(HeroComponent.class, NavigationItem.class);
+        linkResolver = context.registerService(LinkResolver.class, new LinkResolver(maxEntries(100)));
+    }
+
+    @Test
+    void testLinkConventions() {
+        ResourceResolver resolver = context.resourceResolver();
+
+        assertEquals("/content/mysite/about.html", linkResolver.resolve(resolver, "/content/mysite/about"));
+        assertEquals("/content/mysite/about.html", linkResolver.resolve(resolver, "/content/mysite/about.html"));
+        assertEquals("/content/dam/logo.png", linkResolver.resolve(resolver, "/content/dam/logo.png"));
+        assertEquals("https://example.com", linkResolver.resolve(resolver, "https://example.com"));
+        assertNull(linkResolver.resolve(resolver, null));
+    }
+
+    @Test
+    void testRepeatedLinksAreCached() {
+        ResourceResolver resolver = context.resourceResolver();
+
+        linkResolver.resolve(resolver, "/content/mysite/about");
+        linkResolver.resolve(resolver, "/content/mysite/about");
+        linkResolver.resolve(resolver, "/content/mysite/contact");
+
+        assertEquals(2, linkResolver.getMisses());
+        assertEquals(1, linkResolver.getHits());
+        assertEquals(2, linkResolver.size());
+    }
+
+    @Test
+    void testRequestContextIsPartOfKey() {
+        context.request().setServerName("www.example.com");
+        linkResolver.resolve(context.request(), "/content/mysite/about");
+        linkResolver.resolve(context.resourceResolver(), "/content/mysite/about");
+
+        assertEquals(2, linkResolver.getMisses());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        for (int i = 0; i < 250; i++) {
+            linkResolver.resolve(context.resourceResolver(), "/content/mysite/page" + i);
+        }
+
+        assertEquals(100, linkResolver.size());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        ResourceResolver resolver = context.resourceResolver();
+        for (int i = 0; i < 100; i++) {
+            linkResolver.resolve(resolver, "/content/mysite/page" + i);
+        }
+        linkResolver.resolve(resolver, "/content/mysite/page0");
+        linkResolver.resolve(resolver, "/content/mysite/page100");
+
+        linkResolver.resolve(resolver, "/content/mysite/page0");
+        assertEquals(101, linkResolver.getMisses());
+        linkResolver.resolve(resolver, "/content/mysite/page1");
+        assertEquals(102, linkResolver.getMisses());
+    }
+
+    @Test
+    void testInvalidation() {
+        ResourceResolver resolver = context.resourceResolver();
+        linkResolver.resolve(resolver, "/content/mysite/about");
+        linkResolver.resolve(resolver, "/content/mysite/about/team");
+        linkResolver.resolve(resolver, "/content/mysite/contact");
+
+        linkResolver.resolve(resolver, "/content/mysite/about-us");
+
+        linkResolver.onChange(Collections.singletonList(
+            new ResourceChange(ResourceChange.ChangeType.CHANGED, "/content/mysite/about", false)));
+        assertEquals(2, linkResolver.size());
+
+        linkResolver.onChange(Collections.singletonList(
+            new ResourceChange(ResourceChange.ChangeType.ADDED, "/etc/map/http/www.example.com", false)));
+        assertEquals(0, linkResolver.size());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testOnlyMappingChangesEvict() {
+        ResourceResolver resolver = context.resourceResolver();
+        linkResolver.resolve(resolver, "/content/mysite/about");
+        linkResolver.resolve(resolver, "/content/dam/mysite/logo.png");
+
+        linkResolver.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/mysite/about", false, null, Collections.singleton("jcr:title"), null)));
+        linkResolver.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.REMOVED,
+            "/content/dam/mysite/logo.png", false)));
+        assertEquals(2, linkResolver.size());
+
+        linkResolver.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/mysite", false, Collections.singleton(LinkResolver.VANITY_PATH), null, null)));
+        assertEquals(1, linkResolver.size());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void testVanityPathOnJcrContentEvictsPage() throws PersistenceException {
+        context.create().resource("/content/mysite/about/jcr:content", "jcr:title", "About");
+        ResourceResolver resolver = new VanityPathResolver(context.resourceResolver());
+        assertEquals("/content/mysite/about.html", linkResolver.resolve(resolver, "/content/mysite/about"));
+
+        context.resourceResolver().getResource("/content/mysite/about/jcr:content")
+            .adaptTo(ModifiableValueMap.class).put(LinkResolver.VANITY_PATH, "/about");
+        context.resourceResolver().commit();
+        linkResolver.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/mysite/about/jcr:content", false, Collections.singleton(LinkResolver.VANITY_PATH), null, null)));
+
+        assertEquals("/about", linkResolver.resolve(resolver, "/content/mysite/about"));
+        assertEquals(2, linkResolver.getMisses());
+    }
+
+    @Test
+    void testChangesBelowJcrContentKeepLinks() {
+        linkResolver.resolve(context.resourceResolver(), "/content/mysite/about");
+
+        linkResolver.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.ADDED,
+            "/content/mysite/about/jcr:content/par/text", false)));
+
+        assertEquals(1, linkResolver.size());
+    }
+
+    @Test
+    void testSegmentedCacheEvictsAcrossSegments() {
+        LinkResolver large = new LinkResolver(maxEntries(10_000));
+        ResourceResolver resolver = context.resourceResolver();
+        for (int i = 0; i < 100; i++) {
+            large.resolve(resolver, "/content/mysite/about/page" + i);
+            large.resolve(resolver, "/content/mysite/contact/page" + i);
+        }
+
+        large.onChange(Collections.singletonList(
+            new ResourceChange(ResourceChange.ChangeType.REMOVED, "/content/mysite/about", false)));
+
+        assertEquals(100, large.size());
+    }
+
+    @Test
+    void testModelsUseLinkResolver() {
+        context.create().resource("/content/mysite/home/hero",
+            "title", "Hero",
+            "description", "",
+            "linkText", "About",
+            "linkURL", "/content/mysite/about");
+        context.create().resource("/content/mysite/home/item",
+            "label", "About",
+            "url", "/content/mysite/about");
+
+        HeroComponent hero = context.resourceResolver().getResource("/content/mysite/home/hero")
+            .adaptTo(HeroComponent.class);
+        NavigationItem item = context.resourceResolver().getResource("/content/mysite/home/item")
+            .adaptTo(NavigationItem.class);
+
+        assertEquals("/content/mysite/about.html", hero.getView().getLinkURL());
+        assertEquals("/content/mysite/about.html", item.getLink());
+        assertEquals(1, linkResolver.getMisses());
+        assertEquals(1, linkResolver.getHits());
+    }
+
+    @Test
+    void testHitRateForThousandsOfLinks() {
+        LinkResolver large = new LinkResolver(maxEntries(10_000));
+        ResourceResolver resolver = context.resourceResolver();
+        int links = 5000;
+        int renders = 10;
+
+        long start = System.nanoTime();
+        for (int render = 0; render < renders; render++) {
+            for (int i = 0; i < links; i++) {
+                large.resolve(resolver, "/content/mysite/section" + (i % 50) + "/page" + i);
+            }
+        }
+        long cachedNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int render = 0; render < renders; render++) {
+            for (int i = 0; i < links; i++) {
+                resolver.map(LinkResolver.toLink("/content/mysite/section" + (i % 50) + "/page" + i));
+            }
+        }
+        long uncachedNanos = System.nanoTime() - start;
+
+        LOG.info("{} links x {} renders: cached {} ms, uncached {} ms, hit rate {}",
+            links, renders, cachedNanos / 1_000_000, uncachedNanos / 1_000_000,
+            String.format("%.2f", large.getHitRate()));
+        assertEquals(links, large.getMisses());
+        assertEquals(0.9, large.getHitRate(), 0.0001);
+    }
+
+    /**
+     * Maps a page to the vanity path on its {@code jcr:content}, as the Sling resource
+     * resolver does; the mock resolver maps paths unchanged.
+     */
+    private static final class VanityPathResolver extends ResourceResolverWrapper {
+
+        VanityPathResolver(ResourceResolver resolver) {
+            super(resolver);
+        }
+
+        @Override
+        public String map(String resourcePath) {
+            String page = resourcePath.endsWith(".html")
+                ? resourcePath.substring(0, resourcePath.length() - ".html".length()) : resourcePath;
+            Resource content = getResource(page + "/jcr:content");
+            String vanityPath = content != null ? content.getValueMap().get(LinkResolver.VANITY_PATH, String.class) : null;
+            return vanityPath != null ? vanityPath : resourcePath;
+        }
+    }
+
+    private static LinkResolver.Config maxEntries(int maxEntries) {
+        return new LinkResolver.Config() {
+            @Override
+            public int maxEntries() { return maxEntries; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return LinkResolver.Config.class;
+            }
+        };
+    }
+}
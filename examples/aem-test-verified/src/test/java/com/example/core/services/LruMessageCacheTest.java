@@ -0,0 +1,57 @@
+package com.example.core.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruMessageCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        LruMessageCache cache = new LruMessageCache(2, 0, nanos::get);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        cache.get("a");
+        cache.put("c", "C");
+
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("C", cache.get("c"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testEntriesExpireAfterTtl() {
+        LruMessageCache cache = new LruMessageCache(10, 1000, nanos::get);
+        cache.put("a", "A");
+
+        nanos.set(999_000_000L);
+        assertEquals("A", cache.get("a"));
+
+        nanos.set(1_000_000_000L);
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testZeroTtlNeverExpires() {
+        LruMessageCache cache = new LruMessageCache(10, 0, nanos::get);
+        cache.put("a", "A");
+
+        nanos.set(Long.MAX_VALUE / 2);
+        assertEquals("A", cache.get("a"));
+    }
+
+    @Test
+    void testClear() {
+        LruMessageCache cache = new LruMessageCache(10, 0, nanos::get);
+        cache.put("a", "A");
+        cache.clear();
+
+        assertEquals(0, cache.size());
+    }
+}
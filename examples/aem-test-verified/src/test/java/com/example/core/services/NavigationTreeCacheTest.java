@@ -0,0 +1,186 @@
+package com.example.core.services;
+
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import com.example.core.models.NavigationNode;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.wrappers.ResourceWrapper;
+import org.apache.sling.models.factory.ModelFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Annotation;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NavigationTreeCache: tree building, cache hits/misses and invalidation
+ * by resource change and by last-modified date, bounds and builds racing an invalidation.
+ */
+@ExtendWith(AemContextExtension.class)
+class NavigationTreeCacheTest {
+
+    private final AemContext context = new AemContext();
+
+    private NavigationTreeCache cache;
+
+    private Resource navigation;
+
+    @BeforeEach
+    void setUp() {
+        context.addModelsForClasses(NavigationModel.class, NavigationItem.class);
+        cache = context.registerService(NavigationTreeCache.class, new NavigationTreeCache());
+
+        navigation = context.create().resource("/content/mysite/navigation",
+            "sling:resourceType", "mysite/components/navigation",
+            "maxDepth", 2);
+        Resource items = context.create().resource(navigation, "items");
+        Resource products = context.create().resource(items, "products",
+            "label", "Products",
+            "url", "/content/mysite/products");
+        Resource productItems = context.create().resource(products, "items");
+        Resource shoes = context.create().resource(productItems, "shoes",
+            "label", "Shoes",
+            "url", "/content/mysite/products/shoes");
+        Resource shoeItems = context.create().resource(shoes, "items");
+        context.create().resource(shoeItems, "running",
+            "label", "Running",
+            "url", "/content/mysite/products/shoes/running");
+        context.create().resource(items, "about",
+            "label", "About",
+            "url", "/content/mysite/about");
+    }
+
+    @Test
+    void testTreeRespectsAuthoredDepth() {
+        List<NavigationNode> tree = createModel().getTree();
+
+        assertEquals(2, tree.size());
+        NavigationNode products = tree.get(0);
+        assertEquals("Products", products.getLabel());
+        assertEquals(1, products.getLevel());
+        assertEquals(1, products.getChildren().size());
+
+        NavigationNode shoes = products.getChildren().get(0);
+        assertEquals(2, shoes.getLevel());
+        assertFalse(shoes.hasChildren());
+
+        assertEquals(1, createModel().getTree(3).get(0).getChildren().get(0).getChildren().size());
+    }
+
+    @Test
+    void testActivePath() {
+        NavigationNode products = createModel().getTree().get(0);
+
+        assertTrue(products.isActive("/content/mysite/products/shoes"));
+        assertTrue(products.getChildren().get(0).isActive("/content/mysite/products/shoes"));
+        assertFalse(products.isActive("/content/mysite/productsale"));
+        assertFalse(products.isActive(null));
+    }
+
+    @Test
+    void testCacheHitAndMiss() {
+        List<NavigationNode> first = createModel().getTree();
+        List<NavigationNode> second = createModel().getTree();
+
+        assertSame(first, second);
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getHits());
+
+        createModel().getTree(1);
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testInvalidationOnResourceChange() {
+        List<NavigationNode> first = createModel().getTree();
+
+        cache.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.ADDED,
+            "/content/mysite/navigation/items/contact", false)));
+        assertEquals(0, cache.size());
+
+        List<NavigationNode> second = createModel().getTree();
+        assertNotSame(first, second);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    void testUnrelatedChangeKeepsEntry() {
+        createModel().getTree();
+
+        cache.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/othersite/navigation", false)));
+
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testTreeBuiltDuringInvalidationIsNotCached() {
+        // the change is observed while the tree is being read
+        Resource racing = new ResourceWrapper(navigation) {
+            @Override
+            public Resource getChild(String relPath) {
+                cache.invalidate("/content/mysite/navigation/items");
+                return super.getChild(relPath);
+            }
+        };
+
+        List<NavigationNode> tree = cache.getTree(racing, 2);
+
+        assertEquals(2, tree.size());
+        assertEquals(0, cache.size());
+        cache.getTree(navigation, 2);
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testCacheIsBoundedAndIgnoresDamChanges() {
+        NavigationTreeCache small = new NavigationTreeCache(maxEntries(1));
+        small.getTree(navigation, 1);
+        small.getTree(navigation, 2);
+        assertEquals(1, small.size());
+
+        small.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.CHANGED,
+            "/content/dam/mysite/asset.jpg", false)));
+        assertEquals(1, small.size());
+        small.onChange(Collections.singletonList(new ResourceChange(ResourceChange.ChangeType.REMOVED,
+            "/content", false)));
+        assertEquals(0, small.size());
+    }
+
+    @Test
+    void testInvalidationOnLastModified() throws Exception {
+        List<NavigationNode> first = createModel().getTree();
+
+        navigation.adaptTo(ModifiableValueMap.class).put("cq:lastModified", Calendar.getInstance());
+        context.resourceResolver().commit();
+
+        List<NavigationNode> second = createModel().getTree();
+        assertNotSame(first, second);
+        assertEquals(2, cache.getMisses());
+    }
+
+    private NavigationModel createModel() {
+        return context.getService(ModelFactory.class).createModel(navigation, NavigationModel.class);
+    }
+
+    private static NavigationTreeCache.Config maxEntries(int maxEntries) {
+        return new NavigationTreeCache.Config() {
+            @Override
+            public int maxEntries() { return maxEntries; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return NavigationTreeCache.Config.class;
+            }
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.core.services;
+
+import com.example.core.config.SiteConfig;
+import com.example.core.config.SiteConfigProvider;
+import com.example.core.models.HeroComponent;
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.caconfig.ConfigurationBuilder;
+import org.apache.sling.caconfig.ConfigurationResolver;
+import org.apache.sling.models.factory.ModelFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for WarmupService: what gets warmed, skipping the DAM, the time budget, the
+ * background run on activation and the first-request latency on a cold versus a warmed
+ * site.
+ */
+@ExtendWith({AemContextExtension.class, MockitoExtension.class})
+@Isolated
+class WarmupServiceTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmupServiceTest.class);
+
+    private final AemContext context = new AemContext();
+
+    @Mock
+    private ConfigurationResolver configurationResolver;
+
+    @Mock
+    private ConfigurationBuilder configurationBuilder;
+
+    @Mock
+    private SiteConfig siteConfig;
+
+    private SiteConfigProvider siteConfigProvider;
+    private NavigationTreeCache treeCache;
+    private LinkResolver linkResolver;
+
+    @BeforeEach
+    void setUp() {
+        context.addModelsForClasses(HeroComponent.class, NavigationModel.class, NavigationItem.class);
+        lenient().when(configurationResolver.get(any(Resource.class))).thenReturn(configurationBuilder);
+        lenient().when(configurationBuilder.as(SiteConfig.class)).thenReturn(siteConfig);
+
+        siteConfigProvider = context.registerService(SiteConfigProvider.class,
+            new SiteConfigProvider(configurationResolver, siteConfig()));
+        treeCache = context.registerService(NavigationTreeCache.class, new NavigationTreeCache());
+        linkResolver = context.registerService(LinkResolver.class, new LinkResolver(linkConfig()));
+
+        site("/content/mysite", 2);
+        site("/content/othersite", 1);
+    }
+
+    @Test
+    void testWarmsModelsAndSiteConfigs() {
+        WarmupReport report = create(1000, "/content/mysite", "/content/othersite", "/content/missing").warmUp();
+
+        assertTrue(report.isComplete());
+        assertEquals(2, report.getSiteConfigs());
+        assertEquals(2, report.getNavigationModels());
+        assertEquals(3, report.getHeroComponents());
+        assertEquals(0, report.getFailures());
+        assertEquals(2, siteConfigProvider.size());
+        assertEquals(2, treeCache.size());
+        assertTrue(linkResolver.size() > 0);
+    }
+
+    @Test
+    void testSkipsDamBeforeSites() throws PersistenceException {
+        // recreate the sites after the DAM so the walk meets the DAM first, as on an instance
+        ResourceResolver resolver = context.resourceResolver();
+        resolver.delete(resolver.getResource("/content/mysite"));
+        resolver.delete(resolver.getResource("/content/othersite"));
+        resolver.commit();
+        for (int i = 0; i < 100; i++) {
+            context.create().resource("/content/dam/mysite/asset" + i + ".jpg/jcr:content/renditions/original",
+                "jcr:primaryType", "nt:file");
+        }
+        context.create().resource("/content/dam/mysite/promo",
+            "sling:resourceType", HeroComponent.RESOURCE_TYPE, "title", "Promo");
+        site("/content/mysite", 2);
+
+        WarmupReport report = create(10_000, "/content").warmUp();
+
+        assertTrue(report.isComplete());
+        assertEquals(1, report.getNavigationModels());
+        assertEquals(2, report.getHeroComponents());
+        assertEquals(1, report.getSiteConfigs());
+        assertTrue(report.getVisited() < 100, "visited " + report.getVisited());
+    }
+
+    @Test
+    void testStopsAtTimeBudget() {
+        WarmupReport report = create(0, "/content/mysite").warmUp();
+
+        assertFalse(report.isComplete());
+        assertEquals(0, report.getVisited());
+        assertEquals(0, siteConfigProvider.size());
+    }
+
+    @Test
+    void testRunsInBackgroundOnActivation() throws InterruptedException {
+        WarmupService service = context.registerInjectActivateService(WarmupService.class,
+            "contentRoots", new String[] {"/content/othersite"});
+
+        WarmupReport report = service.awaitReport(10, TimeUnit.SECONDS);
+
+        assertNotNull(report);
+        assertSame(report, service.getReport());
+        assertEquals(1, report.getNavigationModels());
+        assertEquals(1, report.getHeroComponents());
+    }
+
+    @Test
+    void testFirstRequestAfterWarmupHitsCaches() {
+        // cold: first render of a site nothing has touched yet
+        long coldMisses = siteConfigProvider.getMisses() + treeCache.getMisses() + linkResolver.getMisses();
+        long cold = render("/content/othersite");
+        coldMisses = siteConfigProvider.getMisses() + treeCache.getMisses() + linkResolver.getMisses() - coldMisses;
+
+        WarmupReport report = create(10_000, "/content/mysite").warmUp();
+        long warmMisses = siteConfigProvider.getMisses() + treeCache.getMisses() + linkResolver.getMisses();
+        long warm = render("/content/mysite");
+        warmMisses = siteConfigProvider.getMisses() + treeCache.getMisses() + linkResolver.getMisses() - warmMisses;
+
+        LOG.info("{}", report);
+        LOG.info("First render: cold {} us with {} cache misses, after warm-up {} us with {} cache misses",
+            TimeUnit.NANOSECONDS.toMicros(cold), coldMisses, TimeUnit.NANOSECONDS.toMicros(warm), warmMisses);
+        assertTrue(coldMisses > 0);
+        assertEquals(0, warmMisses);
+    }
+
+    /**
+     * Renders the page below a site the way a request does and returns the elapsed time.
+     */
+    private long render(String site) {
+        long start = System.nanoTime();
+        ModelFactory modelFactory = context.getService(ModelFactory.class);
+        Resource page = context.resourceResolver().getResource(site + "/en/jcr:content");
+        assertNotNull(siteConfigProvider.getSiteConfig(page));
+        NavigationModel navigation = modelFactory.createModel(page.getChild("navigation"), NavigationModel.class);
+        assertFalse(navigation.getTree().isEmpty());
+        for (NavigationItem item : navigation.getItems()) {
+            assertNotNull(item.getLink());
+        }
+        assertTrue(modelFactory.createModel(page.getChild("hero0"), HeroComponent.class).hasContent());
+        return System.nanoTime() - start;
+    }
+
+    private void site(String root, int heroes) {
+        context.create().resource(root, SiteConfigProvider.CONFIG_REF, root.replace("/content", "/conf"));
+        Resource page = context.create().resource(root + "/en/jcr:content", "jcr:title", "Home");
+        Resource navigation = context.create().resource(page, "navigation",
+            "sling:resourceType", NavigationModel.RESOURCE_TYPE, "title", "Main");
+        for (int i = 0; i < 5; i++) {
+            context.create().resource(navigation, "items/item" + i, "label", "Item " + i, "url", root + "/item" + i);
+        }
+        for (int i = 0; i < heroes; i++) {
+            context.create().resource(page, "hero" + i,
+                "sling:resourceType", HeroComponent.RESOURCE_TYPE, "title", "Hero " + i);
+        }
+    }
+
+    private WarmupService create(long timeBudgetMillis, String... roots) {
+        return new WarmupService(context.getService(ResourceResolverFactory.class),
+            context.getService(ModelFactory.class), siteConfigProvider, new WarmupService.Config() {
+                @Override
+                public String[] contentRoots() { return roots; }
+                @Override
+                public int maxDepth() { return 8; }
+                @Override
+                public long timeBudgetMillis() { return timeBudgetMillis; }
+                @Override
+                public String subservice() { return "model-warmup"; }
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return WarmupService.Config.class;
+                }
+            }, false);
+    }
+
+    private static SiteConfigProvider.Config siteConfig() {
+        return new SiteConfigProvider.Config() {
+            @Override
+            public int maxEntries() { return 100; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return SiteConfigProvider.Config.class;
+            }
+        };
+    }
+
+    private static LinkResolver.Config linkConfig() {
+        return new LinkResolver.Config() {
+            @Override
+            public int maxEntries() { return 1000; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return LinkResolver.Config.class;
+            }
+        };
+    }
+}
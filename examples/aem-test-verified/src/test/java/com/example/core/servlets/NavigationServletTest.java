@@ -0,0 +1,227 @@
+package com.example.core.servlets;
+
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.observation.ResourceChange;
+import org.apache.sling.api.resource.observation.ResourceChange.ChangeType;
+import org.apache.sling.testing.mock.sling.servlet.MockSlingHttpServletRequest;
+import org.apache.sling.testing.mock.sling.servlet.MockSlingHttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for NavigationServlet: rendering, cache hits and misses, 304 answers for
+ * matching ETags, invalidation on relevant resource and mapping changes only, stamps
+ * only for cached responses and the cache bound.
+ */
+@ExtendWith(AemContextExtension.class)
+class NavigationServletTest {
+
+    private static final String NAV = "/content/mysite/navigation";
+
+    private final AemContext context = new AemContext();
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private NavigationServlet servlet;
+
+    @BeforeEach
+    void setUp() {
+        context.addModelsForClasses(NavigationModel.class, NavigationItem.class);
+        servlet = create(10);
+
+        Resource navigation = context.create().resource(NAV,
+            "sling:resourceType", NavigationModel.RESOURCE_TYPE,
+            "title", "Main");
+        Resource items = context.create().resource(navigation, "items");
+        context.create().resource(items, "home", "label", "Home", "url", "/content/mysite/home");
+        context.create().resource(items, "about", "label", "About", "url", "/content/mysite/about");
+    }
+
+    @Test
+    void testRendersNavigationWithETag() throws IOException {
+        MockSlingHttpServletResponse response = get(NAV, null);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertTrue(response.getContentType().startsWith("application/json"));
+        assertNotNull(response.getHeader("ETag"));
+        JsonNode json = mapper.readTree(response.getOutputAsString());
+        assertEquals("Main", json.get("title").asText());
+        assertEquals(2, json.get("items").size());
+        assertEquals("/content/mysite/home.html", json.get("items").get(0).get("link").asText());
+    }
+
+    @Test
+    void testSecondRequestIsServedFromCache() throws IOException {
+        MockSlingHttpServletResponse first = get(NAV, null);
+        MockSlingHttpServletResponse second = get(NAV, null);
+
+        assertEquals(1, servlet.getMisses());
+        assertEquals(1, servlet.getHits());
+        assertEquals(first.getHeader("ETag"), second.getHeader("ETag"));
+        assertEquals(first.getOutputAsString(), second.getOutputAsString());
+    }
+
+    @Test
+    void testMatchingETagReturns304() {
+        String etag = get(NAV, null).getHeader("ETag");
+
+        MockSlingHttpServletResponse response = get(NAV, etag);
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(etag, response.getHeader("ETag"));
+        assertEquals("", response.getOutputAsString());
+        assertEquals(1, servlet.getNotModified());
+    }
+
+    @Test
+    void testMatchingETagOnColdCacheReturns304WithoutRendering() {
+        String etag = get(NAV, null).getHeader("ETag");
+        NavigationServlet cold = create(10);
+
+        MockSlingHttpServletResponse response = get(cold, NAV, "\"other\", W/" + etag);
+
+        assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.getStatus());
+        assertEquals(0, cold.size());
+        assertEquals(0, cold.stamped());
+    }
+
+    @Test
+    void testMappingChangeInvalidatesAndChangesETag() {
+        String etag = get(NAV, null).getHeader("ETag");
+        assertEquals(1, servlet.stamped());
+
+        servlet.onChange(Collections.singletonList(
+            new ResourceChange(ChangeType.ADDED, "/etc/map/http/www.example.com", false)));
+        MockSlingHttpServletResponse response = get(NAV, etag);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+        assertEquals(2, servlet.getMisses());
+        assertEquals(1, servlet.stamped());
+    }
+
+    @Test
+    void testStaleETagGetsFullResponse() {
+        MockSlingHttpServletResponse response = get(NAV, "\"stale\"");
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertFalse(response.getOutputAsString().isEmpty());
+    }
+
+    @Test
+    void testItemChangeInvalidatesAndChangesETag() throws IOException {
+        String etag = get(NAV, null).getHeader("ETag");
+
+        context.resourceResolver().getResource(NAV + "/items/about")
+            .adaptTo(ModifiableValueMap.class).put("label", "About us");
+        servlet.onChange(Collections.singletonList(new ResourceChange(ChangeType.CHANGED, NAV + "/items/about", false)));
+        MockSlingHttpServletResponse response = get(NAV, etag);
+
+        assertEquals(HttpServletResponse.SC_OK, response.getStatus());
+        assertNotEquals(etag, response.getHeader("ETag"));
+        assertEquals(2, servlet.getMisses());
+        JsonNode json = mapper.readTree(response.getOutputAsString());
+        assertEquals("About us", json.get("items").get(1).get("label").asText());
+    }
+
+    @Test
+    void testUnrelatedChangeKeepsEntry() {
+        get(NAV, null);
+
+        servlet.onChange(Collections.singletonList(new ResourceChange(ChangeType.CHANGED, "/content/mysite/home", false)));
+
+        assertEquals(1, servlet.size());
+    }
+
+    @Test
+    void testDamAndAncestorPropertyChangesKeepEntry() {
+        get(NAV, null);
+
+        servlet.onChange(Arrays.asList(
+            new ResourceChange(ChangeType.ADDED, "/content/dam/mysite/asset.jpg", false),
+            new ResourceChange(ChangeType.CHANGED, "/content/mysite", false)));
+        get(NAV, null);
+
+        assertEquals(1, servlet.getMisses());
+        assertEquals(1, servlet.getHits());
+    }
+
+    @Test
+    void testAncestorRemovalInvalidates() {
+        get(NAV, null);
+
+        servlet.onChange(Collections.singletonList(new ResourceChange(ChangeType.REMOVED, "/content/mysite", false)));
+        get(NAV, null);
+
+        assertEquals(2, servlet.getMisses());
+        assertEquals(0, servlet.getHits());
+    }
+
+    @Test
+    void testCacheIsBounded() {
+        NavigationServlet bounded = create(2);
+        for (int i = 0; i < 3; i++) {
+            context.create().resource("/content/mysite/nav" + i,
+                "sling:resourceType", NavigationModel.RESOURCE_TYPE, "title", "Nav " + i);
+            get(bounded, "/content/mysite/nav" + i, null);
+        }
+
+        assertEquals(2, bounded.size());
+        get(bounded, "/content/mysite/nav0", null);
+        assertEquals(4, bounded.getMisses());
+    }
+
+    @Test
+    void testETagIgnoresPropertyOrder() {
+        Resource a = context.create().resource("/content/a", "title", "T", "maxDepth", 2);
+        Resource b = context.create().resource("/content/b", "maxDepth", 2, "title", "T");
+
+        assertEquals(NavigationServlet.computeETag(a, 0), NavigationServlet.computeETag(b, 0));
+    }
+
+    private MockSlingHttpServletResponse get(String path, String ifNoneMatch) {
+        return get(servlet, path, ifNoneMatch);
+    }
+
+    private MockSlingHttpServletResponse get(NavigationServlet target, String path, String ifNoneMatch) {
+        MockSlingHttpServletRequest request = new MockSlingHttpServletRequest(
+            context.resourceResolver(), context.bundleContext());
+        request.setResource(context.resourceResolver().getResource(path));
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        MockSlingHttpServletResponse response = new MockSlingHttpServletResponse();
+        try {
+            target.doGet(request, response);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return response;
+    }
+
+    private static NavigationServlet create(int maxEntries) {
+        return new NavigationServlet(new NavigationServlet.Config() {
+            @Override
+            public int maxEntries() { return maxEntries; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return NavigationServlet.Config.class;
+            }
+        });
+    }
+}
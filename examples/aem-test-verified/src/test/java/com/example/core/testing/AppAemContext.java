@@ -0,0 +1,32 @@
+package com.example.core.testing;
+
+import com.example.core.models.HeroComponent;
+import com.example.core.models.NavigationItem;
+import com.example.core.models.NavigationModel;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextBuilder;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+
+/**
+ * Project-wide AemContext setup (the AppAemContext pattern from SKILL.md).
+ *
+ * <p>{@link #newContext()} builds a fresh context per test. Tests that only create
+ * content and adapt models can use {@link SharedAemContext#get()} with
+ * {@link SharedAemContextExtension} instead, which boots the runtime once per JVM.</p>
+ */
+public final class AppAemContext {
+
+    static final Class<?>[] MODEL_CLASSES = {
+        HeroComponent.class, NavigationModel.class, NavigationItem.class
+    };
+
+    private AppAemContext() {
+    }
+
+    public static AemContext newContext() {
+        return new AemContextBuilder()
+            .resourceResolverType(ResourceResolverType.RESOURCERESOLVER_MOCK)
+            .afterSetUp(context -> context.addModelsForClasses(MODEL_CLASSES))
+            .build();
+    }
+}
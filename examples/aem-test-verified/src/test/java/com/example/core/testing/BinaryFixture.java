@@ -0,0 +1,305 @@
+package com.example.core.testing;
+
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * Compact binary snapshot of a resource tree, loaded into the mock repository in bulk.
+ *
+ * <p>Layout: header (magic, version, source hash), a string table holding every name
+ * and string value once, then the nodes in pre-order. Each node is its name index,
+ * its properties (name index, type tag, value) and its child count. Arrays store their
+ * component type ahead of the elements, so empty and mixed arrays keep their Java type.
+ * Loading maps the file, creates all resources without intermediate commits and commits once.</p>
+ */
+public final class BinaryFixture {
+
+    private static final int MAGIC = 0x41454D46;
+    private static final int VERSION = 2;
+
+    private static final byte STRING = 1;
+    private static final byte LONG = 2;
+    private static final byte INTEGER = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte DECIMAL = 6;
+    private static final byte CALENDAR = 7;
+    private static final byte ARRAY = 8;
+    private static final byte OBJECT = 9;
+
+    private BinaryFixture() {
+    }
+
+    /**
+     * Serializes the tree rooted at the given resource; the root's own name is not stored.
+     */
+    public static byte[] compile(Resource root, long sourceHash) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        ByteArrayOutputStream nodeBytes = new ByteArrayOutputStream();
+        DataOutputStream nodes = new DataOutputStream(nodeBytes);
+        writeNode(root, nodes, strings);
+        nodes.flush();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(nodeBytes.size() + strings.size() * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(sourceHash);
+        out.writeInt(strings.size());
+        for (String value : strings.keySet()) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(utf8.length);
+            out.write(utf8);
+        }
+        nodeBytes.writeTo(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes a snapshot atomically, so concurrent test forks never read a partial file.
+     */
+    public static void write(Resource root, long sourceHash, Path file) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        Files.write(temp, compile(root, sourceHash));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return the source hash stored in the snapshot, or {@code null} if the file is missing or not a snapshot
+     */
+    public static Long readSourceHash(Path file) throws IOException {
+        if (!Files.isRegularFile(file) || Files.size(file) < 16) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(16);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                return null;
+            }
+            return header.getLong();
+        }
+    }
+
+    /**
+     * Memory-maps the snapshot and creates its content at {@code destPath} with a single commit.
+     */
+    public static Resource load(ResourceResolver resolver, Path file, String destPath) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return load(resolver, buffer, destPath);
+        }
+    }
+
+    public static Resource load(ResourceResolver resolver, ByteBuffer buffer, String destPath) throws IOException {
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Not a binary fixture");
+        }
+        buffer.getLong();
+
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] utf8 = new byte[buffer.getInt()];
+            buffer.get(utf8);
+            strings[i] = new String(utf8, StandardCharsets.UTF_8);
+        }
+
+        Resource parent = ResourceUtil.getOrCreateResource(resolver, ResourceUtil.getParent(destPath),
+            (Map<String, Object>) null, null, false);
+        Resource root = readNode(buffer, strings, resolver, parent, ResourceUtil.getName(destPath));
+        resolver.commit();
+        return root;
+    }
+
+    private static void writeNode(Resource resource, DataOutputStream out, Map<String, Integer> strings)
+            throws IOException {
+        out.writeInt(index(resource.getName(), strings));
+
+        Map<String, Object> properties = resource.getValueMap();
+        out.writeInt(properties.size());
+        for (Map.Entry<String, Object> property : properties.entrySet()) {
+            out.writeInt(index(property.getKey(), strings));
+            writeValue(property.getValue(), out, strings);
+        }
+
+        List<Resource> children = new ArrayList<>();
+        Iterator<Resource> iterator = resource.listChildren();
+        while (iterator.hasNext()) {
+            children.add(iterator.next());
+        }
+        out.writeInt(children.size());
+        for (Resource child : children) {
+            writeNode(child, out, strings);
+        }
+    }
+
+    private static void writeValue(Object value, DataOutputStream out, Map<String, Integer> strings)
+            throws IOException {
+        if (value instanceof Object[]) {
+            Object[] values = (Object[]) value;
+            out.writeByte(ARRAY);
+            out.writeByte(componentType(values.getClass().getComponentType()));
+            out.writeInt(values.length);
+            for (Object element : values) {
+                writeValue(element, out, strings);
+            }
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            out.writeByte(DECIMAL);
+            out.writeInt(index(value.toString(), strings));
+        } else if (value instanceof Calendar) {
+            Calendar calendar = (Calendar) value;
+            out.writeByte(CALENDAR);
+            out.writeLong(calendar.getTimeInMillis());
+            out.writeInt(index(calendar.getTimeZone().getID(), strings));
+        } else {
+            out.writeByte(STRING);
+            out.writeInt(index(String.valueOf(value), strings));
+        }
+    }
+
+    private static Resource readNode(ByteBuffer in, String[] strings, ResourceResolver resolver,
+            Resource parent, String rootName) throws PersistenceException {
+        String name = strings[in.getInt()];
+        if (rootName != null) {
+            name = rootName;
+        }
+
+        int propertyCount = in.getInt();
+        Map<String, Object> properties = new HashMap<>(propertyCount * 2);
+        for (int i = 0; i < propertyCount; i++) {
+            String key = strings[in.getInt()];
+            properties.put(key, readValue(in, strings));
+        }
+        Resource resource = resolver.create(parent, name, properties);
+
+        int childCount = in.getInt();
+        for (int i = 0; i < childCount; i++) {
+            readNode(in, strings, resolver, resource, null);
+        }
+        return resource;
+    }
+
+    private static Object readValue(ByteBuffer in, String[] strings) {
+        byte type = in.get();
+        switch (type) {
+            case LONG:
+                return in.getLong();
+            case INTEGER:
+                return in.getInt();
+            case DOUBLE:
+                return in.getDouble();
+            case BOOLEAN:
+                return in.get() != 0;
+            case DECIMAL:
+                return new BigDecimal(strings[in.getInt()]);
+            case CALENDAR:
+                long millis = in.getLong();
+                Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone(strings[in.getInt()]));
+                calendar.setTimeInMillis(millis);
+                return calendar;
+            case ARRAY:
+                return readArray(in, strings);
+            default:
+                return strings[in.getInt()];
+        }
+    }
+
+    private static Object[] readArray(ByteBuffer in, String[] strings) {
+        Class<?> componentType = componentClass(in.get());
+        Object[] values = (Object[]) Array.newInstance(componentType, in.getInt());
+        for (int i = 0; i < values.length; i++) {
+            values[i] = readValue(in, strings);
+        }
+        return values;
+    }
+
+    private static byte componentType(Class<?> type) {
+        if (type == Long.class) {
+            return LONG;
+        } else if (type == Integer.class) {
+            return INTEGER;
+        } else if (type == Double.class) {
+            return DOUBLE;
+        } else if (type == Boolean.class) {
+            return BOOLEAN;
+        } else if (type == BigDecimal.class) {
+            return DECIMAL;
+        } else if (Calendar.class.isAssignableFrom(type)) {
+            return CALENDAR;
+        } else if (type == Object.class) {
+            return OBJECT;
+        }
+        // any other element type is written as its string form
+        return STRING;
+    }
+
+    private static Class<?> componentClass(byte type) {
+        switch (type) {
+            case LONG:
+                return Long.class;
+            case INTEGER:
+                return Integer.class;
+            case DOUBLE:
+                return Double.class;
+            case BOOLEAN:
+                return Boolean.class;
+            case DECIMAL:
+                return BigDecimal.class;
+            case CALENDAR:
+                return Calendar.class;
+            case OBJECT:
+                return Object.class;
+            default:
+                return String.class;
+        }
+    }
+
+    private static int index(String value, Map<String, Integer> strings) {
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.put(value, index);
+        }
+        return index;
+    }
+}
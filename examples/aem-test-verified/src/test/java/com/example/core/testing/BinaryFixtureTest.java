@@ -0,0 +1,157 @@
+package com.example.core.testing;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ValueMap;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for BinaryFixture and FixtureCompiler: round-trip fidelity, snapshot caching
+ * and load time against JSON for 1k/10k-node fixtures, and 100k nodes with {@code -Pscale}.
+ */
+@ExtendWith(AemContextExtension.class)
+@Isolated
+class BinaryFixtureTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BinaryFixtureTest.class);
+
+    private final AemContext context = new AemContext();
+
+    @Test
+    void testRoundTripPreservesTreeAndTypes() throws Exception {
+        Resource source = context.load().json(new ByteArrayInputStream((
+            "{\"jcr:primaryType\":\"cq:Page\","
+            + "\"jcr:content\":{\"jcr:primaryType\":\"cq:PageContent\",\"jcr:title\":\"Home\","
+            + "\"hideInNav\":true,\"rank\":7,\"ratio\":0.5,\"tags\":[\"a\",\"b\"],"
+            + "\"jcr:created\":\"2026-01-15T10:00:00.000+01:00\"},"
+            + "\"child\":{\"jcr:primaryType\":\"nt:unstructured\"}}").getBytes(StandardCharsets.UTF_8)),
+            "/content/source");
+
+        byte[] snapshot = BinaryFixture.compile(source, 42L);
+        Resource copy = BinaryFixture.load(context.resourceResolver(), ByteBuffer.wrap(snapshot), "/content/copy");
+
+        assertEquals("/content/copy", copy.getPath());
+        assertEquals("cq:Page", copy.getValueMap().get("jcr:primaryType", String.class));
+        assertNotNull(copy.getChild("child"));
+
+        ValueMap original = source.getChild("jcr:content").getValueMap();
+        ValueMap loaded = copy.getChild("jcr:content").getValueMap();
+        assertEquals("Home", loaded.get("jcr:title", String.class));
+        assertEquals(Boolean.TRUE, loaded.get("hideInNav"));
+        assertEquals(original.get("rank"), loaded.get("rank"));
+        assertEquals(original.get("ratio"), loaded.get("ratio"));
+        assertArrayEquals(new String[] {"a", "b"}, loaded.get("tags", String[].class));
+        assertEquals(original.get("jcr:created", Calendar.class).getTimeInMillis(),
+            loaded.get("jcr:created", Calendar.class).getTimeInMillis());
+    }
+
+    @Test
+    void testArraysKeepComponentType() throws Exception {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("empty", new Long[0]);
+        properties.put("mixed", new Object[] {"a", 1L});
+        properties.put("ranks", new Long[] {1L, 2L});
+        Resource source = context.create().resource("/content/arrays", properties);
+
+        byte[] snapshot = BinaryFixture.compile(source, 42L);
+        ValueMap loaded = BinaryFixture.load(context.resourceResolver(), ByteBuffer.wrap(snapshot), "/content/copy")
+            .getValueMap();
+
+        assertEquals(Long[].class, loaded.get("empty").getClass());
+        assertEquals(0, ((Object[]) loaded.get("empty")).length);
+        assertEquals(Object[].class, loaded.get("mixed").getClass());
+        assertArrayEquals(new Object[] {"a", 1L}, (Object[]) loaded.get("mixed"));
+        assertArrayEquals(new Long[] {1L, 2L}, (Object[]) loaded.get("ranks"));
+        assertEquals(Long[].class, loaded.get("ranks").getClass());
+    }
+
+    @Test
+    void testCompilerWritesAndReusesSnapshot(@TempDir Path cacheDir) throws Exception {
+        String fixture = "/com/example/core/models/HeroComponentTest.json";
+        String previous = System.setProperty(FixtureCompiler.CACHE_DIR_PROPERTY, cacheDir.toString());
+        try {
+            Path snapshot = FixtureCompiler.snapshotPath(fixture);
+            assertFalse(Files.exists(snapshot));
+
+            FixtureCompiler.load(context, fixture, "/content/first");
+            assertTrue(Files.isRegularFile(snapshot));
+            long written = Files.getLastModifiedTime(snapshot).toMillis();
+
+            Resource hero = FixtureCompiler.load(context, fixture, "/content/second").getChild("hero");
+            assertEquals("Welcome to Our Site", hero.getValueMap().get("title", String.class));
+            assertEquals(written, Files.getLastModifiedTime(snapshot).toMillis());
+        } finally {
+            if (previous != null) {
+                System.setProperty(FixtureCompiler.CACHE_DIR_PROPERTY, previous);
+            } else {
+                System.clearProperty(FixtureCompiler.CACHE_DIR_PROPERTY);
+            }
+        }
+    }
+
+    @Test
+    @Tag("scale")
+    void testLoadTimeAgainstJsonAtProductionScale() throws Exception {
+        testLoadTimeAgainstJson(100_000);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000})
+    void testLoadTimeAgainstJson(int nodeCount) throws Exception {
+        byte[] json = syntheticFixture(nodeCount);
+        Resource source = context.load().json(new ByteArrayInputStream(json), "/content/source");
+        byte[] snapshot = BinaryFixture.compile(source, 0L);
+        context.resourceResolver().delete(source);
+        context.resourceResolver().commit();
+
+        long jsonStart = System.nanoTime();
+        context.load().json(new ByteArrayInputStream(json), "/content/json");
+        long jsonNanos = System.nanoTime() - jsonStart;
+
+        long binaryStart = System.nanoTime();
+        Resource loaded = BinaryFixture.load(context.resourceResolver(), ByteBuffer.wrap(snapshot), "/content/binary");
+        long binaryNanos = System.nanoTime() - binaryStart;
+
+        assertNotNull(loaded.getChild("folder0/node0"));
+        LOG.info("{} nodes: JSON {} bytes / {} ms, binary {} bytes / {} ms",
+            nodeCount, json.length, jsonNanos / 1_000_000, snapshot.length, binaryNanos / 1_000_000);
+        assertTrue(snapshot.length < json.length);
+    }
+
+    private static byte[] syntheticFixture(int nodeCount) {
+        int folders = Math.max(1, nodeCount / 100);
+        StringBuilder json = new StringBuilder(nodeCount * 120);
+        json.append("{\"jcr:primaryType\":\"sling:Folder\"");
+        for (int f = 0; f < folders; f++) {
+            json.append(",\"folder").append(f).append("\":{\"jcr:primaryType\":\"sling:Folder\"");
+            for (int n = 0; n < nodeCount / folders; n++) {
+                json.append(",\"node").append(n).append("\":{\"jcr:primaryType\":\"nt:unstructured\",")
+                    .append("\"sling:resourceType\":\"mysite/components/hero\",")
+                    .append("\"title\":\"Title ").append(n).append("\",\"rank\":").append(n).append('}');
+            }
+            json.append('}');
+        }
+        json.append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.core.testing;
+
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceUtil;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates production-sized synthetic content (pages, DAM assets, navigation items)
+ * for performance tests. Resources are created directly through the resolver with the
+ * parent handle kept in hand, children are spread over folders so no node gets
+ * unrealistically wide, and commits are deferred to one per {@code batchSize} creations.
+ *
+ * <pre>
+ * BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver(), 5000);
+ * List&lt;String&gt; assets = bulk.assets("/content/dam/perf", 100_000);
+ * bulk.commit();
+ * </pre>
+ */
+public final class BulkContentBuilder {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int DEFAULT_FOLDER_SIZE = 1000;
+
+    private final ResourceResolver resolver;
+    private final int batchSize;
+    private int folderSize = DEFAULT_FOLDER_SIZE;
+    private int pending;
+    private int created;
+
+    public BulkContentBuilder(ResourceResolver resolver) {
+        this(resolver, DEFAULT_BATCH_SIZE);
+    }
+
+    public BulkContentBuilder(ResourceResolver resolver, int batchSize) {
+        this.resolver = resolver;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Sets the maximum number of pages or assets placed in one folder.
+     */
+    public BulkContentBuilder folderSize(int folderSize) {
+        this.folderSize = Math.max(1, folderSize);
+        return this;
+    }
+
+    /**
+     * Creates {@code count} {@code cq:Page} nodes with {@code jcr:content} below {@code rootPath},
+     * grouped into section pages.
+     *
+     * @return the page paths
+     */
+    public List<String> pages(String rootPath, int count) {
+        Resource root = getOrCreate(rootPath);
+        List<String> paths = new ArrayList<>(count);
+        Resource section = null;
+        for (int i = 0; i < count; i++) {
+            if (i % folderSize == 0) {
+                section = page(root, "section" + (i / folderSize), "Section " + (i / folderSize));
+            }
+            paths.add(page(section, "page" + i, "Page " + i).getPath());
+        }
+        return paths;
+    }
+
+    /**
+     * Creates {@code count} {@code dam:Asset} nodes with {@code jcr:content/metadata} below
+     * {@code rootPath}, grouped into {@code sling:Folder}s.
+     *
+     * @return the asset paths
+     */
+    public List<String> assets(String rootPath, int count) {
+        Resource root = getOrCreate(rootPath);
+        List<String> paths = new ArrayList<>(count);
+        Resource folder = null;
+        for (int i = 0; i < count; i++) {
+            if (i % folderSize == 0) {
+                folder = create(root, "folder" + (i / folderSize), props("jcr:primaryType", "sling:Folder"));
+            }
+            Resource asset = create(folder, "asset" + i + ".jpg", props("jcr:primaryType", "dam:Asset"));
+            Resource content = create(asset, "jcr:content", props("jcr:primaryType", "dam:AssetContent"));
+            create(content, "metadata", props("jcr:primaryType", "nt:unstructured", "dc:title", "Asset " + i));
+            paths.add(asset.getPath());
+        }
+        return paths;
+    }
+
+    /**
+     * Creates a navigation component at {@code path} with {@code itemsPerLevel} items per
+     * level, nested {@code depth} levels deep under {@code items} nodes.
+     *
+     * @return the navigation resource
+     */
+    public Resource navigation(String path, int itemsPerLevel, int depth) {
+        Resource navigation = getOrCreate(path);
+        addItems(navigation, itemsPerLevel, depth, "/content/nav");
+        return navigation;
+    }
+
+    /**
+     * Commits pending changes.
+     */
+    public void commit() {
+        try {
+            if (pending > 0) {
+                resolver.commit();
+                pending = 0;
+            }
+        } catch (PersistenceException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the number of resources created so far
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    private void addItems(Resource parent, int count, int depth, String urlPrefix) {
+        if (depth <= 0) {
+            return;
+        }
+        Resource items = create(parent, "items", props("jcr:primaryType", "nt:unstructured"));
+        for (int i = 0; i < count; i++) {
+            String url = urlPrefix + "/item" + i;
+            Resource item = create(items, "item" + i, props("label", "Item " + i, "url", url));
+            addItems(item, count, depth - 1, url);
+        }
+    }
+
+    private Resource page(Resource parent, String name, String title) {
+        Resource page = create(parent, name, props("jcr:primaryType", "cq:Page"));
+        create(page, "jcr:content", props(
+            "jcr:primaryType", "cq:PageContent",
+            "jcr:title", title,
+            "sling:resourceType", "mysite/components/page"));
+        return page;
+    }
+
+    private Resource getOrCreate(String path) {
+        try {
+            return ResourceUtil.getOrCreateResource(resolver, path, (Map<String, Object>) null, null, false);
+        } catch (PersistenceException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Resource create(Resource parent, String name, Map<String, Object> properties) {
+        try {
+            Resource resource = resolver.create(parent, name, properties);
+            created++;
+            if (++pending >= batchSize) {
+                commit();
+            }
+            return resource;
+        } catch (PersistenceException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Object> props(Object... keyValues) {
+        Map<String, Object> properties = new HashMap<>(keyValues.length);
+        for (int i = 0; i < keyValues.length; i += 2) {
+            properties.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return properties;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.core.testing;
+
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(AemContextExtension.class)
+class BulkContentBuilderTest {
+
+    private final AemContext context = new AemContext();
+
+    @Test
+    void testAssetsAreSpreadOverFolders() {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver(), 100).folderSize(10);
+
+        List<String> paths = bulk.assets("/content/dam/bulk", 25);
+        bulk.commit();
+
+        assertEquals(25, paths.size());
+        assertEquals("/content/dam/bulk/folder2/asset24.jpg", paths.get(24));
+        // 3 folders + 25 x (asset, jcr:content, metadata)
+        assertEquals(3 + 25 * 3, bulk.getCreated());
+
+        Resource asset = context.resourceResolver().getResource(paths.get(24));
+        assertEquals("dam:Asset", asset.getValueMap().get("jcr:primaryType", String.class));
+        assertEquals("Asset 24", asset.getChild("jcr:content/metadata").getValueMap().get("dc:title", String.class));
+    }
+
+    @Test
+    void testPagesHaveContent() {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver()).folderSize(50);
+
+        List<String> paths = bulk.pages("/content/perf", 120);
+        bulk.commit();
+
+        assertEquals(120, paths.size());
+        assertEquals("/content/perf/section2/page100", paths.get(100));
+        Resource content = context.resourceResolver().getResource(paths.get(100) + "/jcr:content");
+        assertEquals("Page 100", content.getValueMap().get("jcr:title", String.class));
+    }
+
+    @Test
+    void testNestedNavigation() {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver());
+
+        Resource navigation = bulk.navigation("/content/perf/navigation", 4, 2);
+        bulk.commit();
+
+        Resource nested = navigation.getChild("items/item3/items/item1");
+        assertNotNull(nested);
+        assertEquals("/content/nav/item3/item1", nested.getValueMap().get("url", String.class));
+        assertNull(navigation.getChild("items/item3/items/item1/items"));
+    }
+
+    @Test
+    void testCommitsAreDeferredToBatches() {
+        ResourceResolver resolver = context.resourceResolver();
+        BulkContentBuilder bulk = new BulkContentBuilder(resolver, 1000);
+
+        bulk.assets("/content/dam/deferred", 10);
+        assertTrue(resolver.hasChanges());
+
+        bulk.commit();
+        assertFalse(resolver.hasChanges());
+    }
+
+    @Test
+    @Tag("scale")
+    void testProductionScaleAssets() {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver(), 10_000);
+
+        List<String> paths = bulk.assets("/content/dam/scale", 50_000);
+        bulk.commit();
+
+        assertEquals(50_000, paths.size());
+        assertNotNull(context.resourceResolver().getResource(paths.get(49_999) + "/jcr:content/metadata"));
+    }
+}
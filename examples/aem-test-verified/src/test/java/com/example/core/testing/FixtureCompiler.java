@@ -0,0 +1,101 @@
+package com.example.core.testing;
+
+import io.wcm.testing.mock.aem.context.AemContextImpl;
+import org.apache.sling.api.resource.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Compiles JSON test fixtures into {@link BinaryFixture} snapshots and loads them.
+ *
+ * <p>{@link #load} is a drop-in for {@code context.load().json(...)}: the first call for
+ * a fixture parses the JSON as usual and writes a snapshot to the cache directory
+ * ({@code target/fixture-cache}, or the {@code fixture.cache.dir} system property);
+ * later calls, including in later builds, bulk-load the snapshot as long as the JSON
+ * is unchanged. {@link #main} pre-builds snapshots for every JSON file in a directory.</p>
+ */
+public final class FixtureCompiler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FixtureCompiler.class);
+
+    static final String CACHE_DIR_PROPERTY = "fixture.cache.dir";
+
+    private FixtureCompiler() {
+    }
+
+    /**
+     * Loads the JSON classpath fixture into the context at {@code destPath}, using the
+     * binary snapshot when it is up to date.
+     */
+    public static Resource load(AemContextImpl context, String classpathResource, String destPath) {
+        try {
+            byte[] json = readClasspath(classpathResource);
+            long hash = hash(json);
+            Path snapshot = snapshotPath(classpathResource);
+
+            Long cachedHash = BinaryFixture.readSourceHash(snapshot);
+            if (cachedHash != null && cachedHash == hash) {
+                return BinaryFixture.load(context.resourceResolver(), snapshot, destPath);
+            }
+
+            Resource root = context.load().json(new ByteArrayInputStream(json), destPath);
+            BinaryFixture.write(root, hash, snapshot);
+            return root;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load fixture " + classpathResource, e);
+        }
+    }
+
+    /**
+     * Compiles every {@code *.json} below the given directory (default {@code src/test/resources}).
+     */
+    public static void main(String[] args) throws IOException {
+        Path sourceDir = Paths.get(args.length > 0 ? args[0] : "src/test/resources");
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(sourceDir)) {
+            files = walk.filter(path -> path.toString().endsWith(".json")).collect(Collectors.toList());
+        }
+
+        SharedAemContext context = SharedAemContext.get();
+        for (Path file : files) {
+            String classpathResource = "/" + sourceDir.relativize(file).toString().replace('\\', '/');
+            byte[] json = Files.readAllBytes(file);
+            Resource root = context.load().json(new ByteArrayInputStream(json), "/content/fixture-compiler");
+            BinaryFixture.write(root, hash(json), snapshotPath(classpathResource));
+            context.reset();
+            LOG.info("Compiled {}", classpathResource);
+        }
+    }
+
+    static Path snapshotPath(String classpathResource) {
+        String name = classpathResource.replaceAll("^/+", "").replaceAll("\\.json$", "") + ".bin";
+        return Paths.get(System.getProperty(CACHE_DIR_PROPERTY, "target/fixture-cache")).resolve(name);
+    }
+
+    private static byte[] readClasspath(String classpathResource) throws IOException {
+        try (InputStream in = FixtureCompiler.class.getResourceAsStream(classpathResource)) {
+            if (in == null) {
+                throw new IOException("Fixture not found: " + classpathResource);
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    private static long hash(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+}
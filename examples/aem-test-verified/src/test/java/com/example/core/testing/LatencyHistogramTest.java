@@ -0,0 +1,75 @@
+package com.example.core.testing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for LatencyHistogram: exact small values, percentile precision and merging.
+ */
+class LatencyHistogramTest {
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(50, histogram.getValueAtPercentile(50));
+        assertEquals(99, histogram.getValueAtPercentile(99));
+        assertEquals(100, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getMin());
+        assertEquals(50.5, histogram.getMean(), 0.001);
+    }
+
+    @Test
+    void testPercentilesWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 1_000_000; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertWithinOnePercent(500_000_000L, histogram.getValueAtPercentile(50));
+        assertWithinOnePercent(990_000_000L, histogram.getValueAtPercentile(99));
+        assertWithinOnePercent(999_000_000L, histogram.getValueAtPercentile(99.9));
+        assertEquals(1_000_000_000L, histogram.getMax());
+    }
+
+    @Test
+    void testBucketBoundsCoverEveryValue() {
+        for (long value : new long[] {0, 1, 127, 128, 255, 256, 1_000_003, Long.MAX_VALUE / 3, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value, Long.toString(value));
+            if (index > 0) {
+                assertTrue(LatencyHistogram.highestEquivalentValue(index - 1) < value, Long.toString(value));
+            }
+        }
+    }
+
+    @Test
+    void testMergedHistogramsMatchSingleHistogram() {
+        LatencyHistogram single = new LatencyHistogram();
+        LatencyHistogram merged = new LatencyHistogram();
+        LatencyHistogram[] parts = {new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+        for (int i = 0; i < 30_000; i++) {
+            long value = (i * 7919L) % 5_000_000;
+            single.record(value);
+            parts[i % parts.length].record(value);
+        }
+        for (LatencyHistogram part : parts) {
+            merged.add(part);
+        }
+
+        assertEquals(single.getCount(), merged.getCount());
+        assertEquals(single.getMax(), merged.getMax());
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            assertEquals(single.getValueAtPercentile(percentile), merged.getValueAtPercentile(percentile));
+        }
+        assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+    }
+
+    private static void assertWithinOnePercent(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 100, "expected ~" + expected + " but was " + actual);
+    }
+}
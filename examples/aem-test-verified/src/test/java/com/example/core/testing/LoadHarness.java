@@ -0,0 +1,161 @@
+package com.example.core.testing;
+
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Drives concurrent simulated requests against a populated mock repository and
+ * reports throughput and latency percentiles. Each worker thread has its own service
+ * resolver, as a request would, picks a random page per request and times one
+ * {@link Render} call. Results of the warm-up period are discarded.
+ *
+ * <pre>
+ * LoadReport report = new LoadHarness(context.getService(ResourceResolverFactory.class))
+ *     .threads(8).warmupMillis(500).durationMillis(5000)
+ *     .run("cached", pages, (resolver, page) -&gt; page.getChild("hero").adaptTo(HeroComponent.class));
+ * </pre>
+ */
+public final class LoadHarness {
+
+    /**
+     * One simulated request for a page.
+     */
+    @FunctionalInterface
+    public interface Render {
+        void render(ResourceResolver resolver, Resource page) throws Exception;
+    }
+
+    private final ResourceResolverFactory resolverFactory;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private long warmupMillis = 500;
+    private long durationMillis = 5000;
+    private String subservice = "load-test";
+
+    public LoadHarness(ResourceResolverFactory resolverFactory) {
+        this.resolverFactory = resolverFactory;
+    }
+
+    public LoadHarness threads(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    public LoadHarness warmupMillis(long warmupMillis) {
+        this.warmupMillis = Math.max(0, warmupMillis);
+        return this;
+    }
+
+    public LoadHarness durationMillis(long durationMillis) {
+        this.durationMillis = Math.max(1, durationMillis);
+        return this;
+    }
+
+    public LoadHarness subservice(String subservice) {
+        this.subservice = subservice;
+        return this;
+    }
+
+    /**
+     * Runs the render against random pages on all threads for the warm-up plus the
+     * measured duration.
+     *
+     * @param name label of the scenario in the report
+     * @param pages paths of the pages to request
+     */
+    public LoadReport run(String name, List<String> pages, Render render) throws InterruptedException {
+        if (pages.isEmpty()) {
+            throw new IllegalArgumentException("No pages to render");
+        }
+        Map<String, Object> authInfo = Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, subservice);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        List<Future<Worker>> futures = new ArrayList<>();
+        // the warm-up also absorbs the time it takes to start the workers
+        long measureStart = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        long measureEnd = measureStart + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        try {
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    Worker worker = new Worker(measureStart, measureEnd);
+                    try (ResourceResolver resolver = resolverFactory.getServiceResourceResolver(authInfo)) {
+                        start.await();
+                        worker.run(resolver, pages, render, firstError);
+                    }
+                    return worker;
+                }));
+            }
+            start.countDown();
+
+            LatencyHistogram latencies = new LatencyHistogram();
+            long requests = 0;
+            long errors = 0;
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get(warmupMillis + durationMillis + 60_000, TimeUnit.MILLISECONDS);
+                latencies.add(worker.latencies);
+                requests += worker.requests;
+                errors += worker.errors;
+            }
+            return new LoadReport(name, threads, requests, errors, measureEnd - measureStart, latencies,
+                firstError.get());
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Load run " + name + " did not complete", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class Worker {
+
+        private final long start;
+        private final long end;
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private long requests;
+        private long errors;
+
+        Worker(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void run(ResourceResolver resolver, List<String> pages, Render render, AtomicReference<Throwable> firstError) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long now = System.nanoTime();
+            while (now < end && !Thread.currentThread().isInterrupted()) {
+                Resource page = resolver.getResource(pages.get(random.nextInt(pages.size())));
+                boolean failed = false;
+                long begin = System.nanoTime();
+                try {
+                    render.render(resolver, page);
+                } catch (Exception | AssertionError e) {
+                    failed = true;
+                    firstError.compareAndSet(null, e);
+                }
+                now = System.nanoTime();
+                if (begin >= start) {
+                    if (failed) {
+                        errors++;
+                    } else {
+                        latencies.record(now - begin);
+                        requests++;
+                    }
+                }
+            }
+        }
+    }
+}
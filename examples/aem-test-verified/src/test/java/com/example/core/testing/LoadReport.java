@@ -0,0 +1,83 @@
+package com.example.core.testing;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Result of one {@link LoadHarness} run: throughput over the measured window and the
+ * latency distribution of successful requests, in nanoseconds.
+ */
+public final class LoadReport {
+
+    private final String name;
+    private final int threads;
+    private final long requests;
+    private final long errors;
+    private final long elapsedNanos;
+    private final LatencyHistogram latencies;
+    private final Throwable firstError;
+
+    LoadReport(String name, int threads, long requests, long errors, long elapsedNanos, LatencyHistogram latencies,
+            Throwable firstError) {
+        this.name = name;
+        this.threads = threads;
+        this.requests = requests;
+        this.errors = errors;
+        this.elapsedNanos = elapsedNanos;
+        this.latencies = latencies;
+        this.firstError = firstError;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return the first failure of any request, including the warm-up, or {@code null}
+     */
+    public Throwable getFirstError() {
+        return firstError;
+    }
+
+    /**
+     * @return successful requests per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+    }
+
+    public long getPercentileNanos(double percentile) {
+        return latencies.getValueAtPercentile(percentile);
+    }
+
+    public long getMaxNanos() {
+        return latencies.getMax();
+    }
+
+    public double getMeanNanos() {
+        return latencies.getMean();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-24s %3d threads %10.0f req/s  p50 %8d us  p99 %8d us  p99.9 %8d us  max %8d us  "
+                + "(%d requests, %d errors)",
+            name, threads, getThroughput(), micros(getPercentileNanos(50)), micros(getPercentileNanos(99)),
+            micros(getPercentileNanos(99.9)), micros(getMaxNanos()), requests, errors);
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.core.testing;
+
+import io.wcm.testing.mock.aem.context.AemContextImpl;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.Resource;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceUtil;
+import org.apache.sling.testing.mock.sling.ResourceResolverType;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * AemContext that is booted once per test thread and reset between tests.
+ *
+ * <p>On first use the OSGi/Sling Models runtime is started, the project models are
+ * registered and the content below {@code /content}, {@code /conf} and {@code /var}
+ * is snapshotted. {@link #reset()} deletes resources created since the snapshot and
+ * restores changed or removed baseline resources, which is far cheaper than
+ * booting a new context.</p>
+ *
+ * <p>There is one instance per thread, so test classes running concurrently under
+ * JUnit parallel execution never see each other's content. Services registered in
+ * the shared context and request attributes outlive a test, so tests that register
+ * services should keep using a per-test context.</p>
+ */
+public final class SharedAemContext extends AemContextImpl {
+
+    private static final String[] RESET_ROOTS = {"/content", "/conf", "/var"};
+
+    private static final ThreadLocal<SharedAemContext> INSTANCE = ThreadLocal.withInitial(SharedAemContext::boot);
+
+    // boot time of this thread's context until TimingExtension takes it
+    private static final ThreadLocal<Long> BOOT_NANOS = new ThreadLocal<>();
+
+    private final Map<String, Map<String, Object>> baseline = new LinkedHashMap<>();
+
+    private SharedAemContext() {
+        setResourceResolverType(ResourceResolverType.RESOURCERESOLVER_MOCK);
+    }
+
+    /**
+     * @return the context of the current thread, booting it on first call
+     */
+    public static SharedAemContext get() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Returns the time spent booting the current thread's context, once: which test
+     * triggers the boot depends on scheduling, so timings exclude it.
+     *
+     * @return boot time in nanoseconds if this thread booted its context since the last
+     *         call, otherwise 0
+     */
+    public static long takeBootNanos() {
+        Long nanos = BOOT_NANOS.get();
+        BOOT_NANOS.remove();
+        return nanos != null ? nanos : 0L;
+    }
+
+    private static SharedAemContext boot() {
+        long start = System.nanoTime();
+        SharedAemContext context = new SharedAemContext();
+        context.setUp();
+        context.addModelsForClasses(AppAemContext.MODEL_CLASSES);
+        context.snapshot();
+        Runtime.getRuntime().addShutdownHook(new Thread(context::tearDown));
+        BOOT_NANOS.set(System.nanoTime() - start);
+        return context;
+    }
+
+    /**
+     * Records the current content below the reset roots as the baseline.
+     */
+    public void snapshot() {
+        baseline.clear();
+        for (String root : RESET_ROOTS) {
+            Resource resource = resourceResolver().getResource(root);
+            if (resource != null) {
+                record(resource);
+            }
+        }
+    }
+
+    /**
+     * Restores the repository to the last snapshot.
+     */
+    public void reset() {
+        ResourceResolver resolver = resourceResolver();
+        resolver.revert();
+        resolver.refresh();
+        try {
+            for (String root : RESET_ROOTS) {
+                Resource resource = resolver.getResource(root);
+                if (resource != null) {
+                    prune(resolver, resource);
+                }
+            }
+            for (Map.Entry<String, Map<String, Object>> entry : baseline.entrySet()) {
+                restore(resolver, entry.getKey(), entry.getValue());
+            }
+            resolver.commit();
+        } catch (PersistenceException e) {
+            throw new IllegalStateException("Cannot reset shared AemContext", e);
+        }
+        currentResource((Resource) null);
+    }
+
+    private void record(Resource resource) {
+        baseline.put(resource.getPath(), new HashMap<>(resource.getValueMap()));
+        for (Resource child : resource.getChildren()) {
+            record(child);
+        }
+    }
+
+    private void prune(ResourceResolver resolver, Resource resource) throws PersistenceException {
+        if (!baseline.containsKey(resource.getPath())) {
+            resolver.delete(resource);
+            return;
+        }
+        List<Resource> children = new ArrayList<>();
+        Iterator<Resource> iterator = resource.listChildren();
+        while (iterator.hasNext()) {
+            children.add(iterator.next());
+        }
+        for (Resource child : children) {
+            prune(resolver, child);
+        }
+    }
+
+    private static void restore(ResourceResolver resolver, String path, Map<String, Object> properties)
+            throws PersistenceException {
+        Resource resource = resolver.getResource(path);
+        if (resource == null) {
+            Resource parent = resolver.getResource(ResourceUtil.getParent(path));
+            resolver.create(parent, ResourceUtil.getName(path), properties);
+            return;
+        }
+        if (!sameProperties(properties, resource.getValueMap())) {
+            ModifiableValueMap current = resource.adaptTo(ModifiableValueMap.class);
+            if (current != null) {
+                current.keySet().retainAll(properties.keySet());
+                current.putAll(properties);
+            }
+        }
+    }
+
+    private static boolean sameProperties(Map<String, Object> expected, Map<String, Object> actual) {
+        if (expected.size() != actual.size()) {
+            return false;
+        }
+        for (Map.Entry<String, Object> entry : expected.entrySet()) {
+            if (!Objects.deepEquals(entry.getValue(), actual.get(entry.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
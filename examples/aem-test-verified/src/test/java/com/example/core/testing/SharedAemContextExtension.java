@@ -0,0 +1,15 @@
+package com.example.core.testing;
+
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Resets {@link SharedAemContext} to its snapshot before each test.
+ */
+public class SharedAemContextExtension implements BeforeEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext extensionContext) {
+        SharedAemContext.get().reset();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.core.testing;
+
+import com.example.core.models.HeroComponent;
+import org.apache.sling.api.resource.ModifiableValueMap;
+import org.apache.sling.api.resource.Resource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for SharedAemContext reset semantics and boot time reporting. The cost of
+ * booting a fresh context against resetting the shared one is measured by
+ * {@code SharedAemContextBenchmark} ({@code mvn -Pbenchmark verify}).
+ */
+@ExtendWith(SharedAemContextExtension.class)
+@Isolated
+class SharedAemContextTest {
+
+    private final SharedAemContext context = SharedAemContext.get();
+
+    @Test
+    void testBootTimeIsTakenOncePerThread() throws InterruptedException {
+        long[] boots = new long[2];
+        Thread thread = new Thread(() -> {
+            SharedAemContext.get();
+            boots[0] = SharedAemContext.takeBootNanos();
+            SharedAemContext.get();
+            boots[1] = SharedAemContext.takeBootNanos();
+        });
+        thread.start();
+        thread.join();
+
+        assertTrue(boots[0] > 0);
+        assertEquals(0, boots[1]);
+    }
+
+    @Test
+    void testResetRemovesCreatedContent() {
+        context.create().resource("/content/shared/page", "title", "Temporary");
+        context.create().resource("/conf/shared/setting", "value", 1);
+
+        context.reset();
+
+        assertNull(context.resourceResolver().getResource("/content/shared/page"));
+        assertNull(context.resourceResolver().getResource("/conf/shared"));
+    }
+
+    @Test
+    void testResetRestoresBaseline() throws Exception {
+        context.create().resource("/content/baseline/hero", "title", "Original");
+        context.snapshot();
+        try {
+            Resource hero = context.resourceResolver().getResource("/content/baseline/hero");
+            ModifiableValueMap properties = hero.adaptTo(ModifiableValueMap.class);
+            properties.put("title", "Changed");
+            properties.put("extra", "value");
+            context.resourceResolver().commit();
+            context.resourceResolver().delete(context.resourceResolver().getResource("/content/baseline"));
+            context.resourceResolver().commit();
+
+            context.reset();
+
+            Resource restored = context.resourceResolver().getResource("/content/baseline/hero");
+            assertNotNull(restored);
+            assertEquals("Original", restored.getValueMap().get("title", String.class));
+            assertFalse(restored.getValueMap().containsKey("extra"));
+        } finally {
+            context.resourceResolver().delete(context.resourceResolver().getResource("/content/baseline"));
+            context.resourceResolver().commit();
+            context.snapshot();
+        }
+    }
+
+    @Test
+    void testModelsAreRegistered() {
+        context.load().json("/com/example/core/models/HeroComponentTest.json", "/content/mysite/home");
+
+        Resource resource = context.resourceResolver().getResource("/content/mysite/home/hero");
+        assertNotNull(resource.adaptTo(HeroComponent.class));
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.core.testing;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.InvocationInterceptor;
+import org.junit.jupiter.api.extension.ReflectiveInvocationContext;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long each test spends in context boot, fixture setup and its body, keeps
+ * the samples in a {@link TimingHistory} file and, when the gate is enabled, fails a test
+ * whose phase regresses beyond a threshold against the median of its history.
+ *
+ * <p>The extension is registered for every test through JUnit's extension
+ * auto-detection ({@code junit-platform.properties} and
+ * {@code META-INF/services/org.junit.jupiter.api.extension.Extension}). Global
+ * extensions run before those declared with {@code @ExtendWith}, so the phases are:</p>
+ * <ul>
+ *   <li>{@code boot}: test instance construction and the other extensions' before-each
+ *   callbacks, which is where {@code AemContext} is set up;</li>
+ *   <li>{@code fixture}: the {@code @BeforeEach} methods, which load content;</li>
+ *   <li>{@code body}: the test method itself.</li>
+ * </ul>
+ * <p>The first {@link SharedAemContext#get()} on a thread boots that thread's context.
+ * Which test pays for it depends on how test classes are scheduled across threads, so
+ * that time is taken out of whichever phase it fell in and recorded separately as
+ * {@code sharedBoot}, which is not checked for regressions.</p>
+ * <p>{@code total} additionally includes teardown and the shared boot. Failed tests are
+ * not recorded; a regressed test is not recorded either, so the baseline only moves
+ * with accepted runs.</p>
+ * <p>The gate is off by default, since wall-clock checks fail at random on a loaded
+ * machine; CI runs with {@code -Dtiming.gate.enabled=true}.</p>
+ *
+ * <p>Configuration parameters (system properties or {@code junit-platform.properties}):
+ * {@code timing.history.file}, {@code timing.history.samples},
+ * {@code timing.regression.factor}, {@code timing.regression.min.millis},
+ * {@code timing.baseline.min.samples} and {@code timing.gate.enabled}.</p>
+ */
+public class TimingExtension implements InvocationInterceptor, BeforeEachCallback, BeforeTestExecutionCallback,
+        AfterEachCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(TimingExtension.class);
+
+    // test methods run on the thread that constructed their instance
+    private static final ThreadLocal<Long> CONSTRUCTION_NANOS = new ThreadLocal<>();
+
+    @Override
+    public <T> T interceptTestClassConstructor(Invocation<T> invocation,
+            ReflectiveInvocationContext<Constructor<T>> invocationContext, ExtensionContext extensionContext)
+            throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            CONSTRUCTION_NANOS.set(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        Long construction = CONSTRUCTION_NANOS.get();
+        CONSTRUCTION_NANOS.remove();
+        context.getStore(NAMESPACE).put(Measurement.class,
+            new Measurement(System.nanoTime(), construction != null ? construction : 0L));
+    }
+
+    @Override
+    public void interceptBeforeEachMethod(Invocation<Void> invocation,
+            ReflectiveInvocationContext<Method> invocationContext, ExtensionContext extensionContext)
+            throws Throwable {
+        Measurement measurement = measurement(extensionContext);
+        if (measurement == null) {
+            invocation.proceed();
+            return;
+        }
+        long start = System.nanoTime();
+        measurement.endBoot(start);
+        try {
+            invocation.proceed();
+        } finally {
+            measurement.fixtureNanos += System.nanoTime() - start - measurement.takeSharedBoot();
+        }
+    }
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        Measurement measurement = measurement(context);
+        if (measurement != null) {
+            measurement.endBoot(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void interceptTestMethod(Invocation<Void> invocation, ReflectiveInvocationContext<Method> invocationContext,
+            ExtensionContext extensionContext) throws Throwable {
+        Measurement measurement = measurement(extensionContext);
+        long start = System.nanoTime();
+        try {
+            invocation.proceed();
+        } finally {
+            if (measurement != null) {
+                measurement.bodyNanos = System.nanoTime() - start - measurement.takeSharedBoot();
+            }
+        }
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        Measurement measurement = measurement(context);
+        if (measurement == null || context.getExecutionException().isPresent()) {
+            return;
+        }
+        Map<String, Long> sample = measurement.toSample(System.nanoTime());
+        String test = key(context);
+        TimingHistory history = history(context);
+
+        if (Boolean.parseBoolean(parameter(context, "timing.gate.enabled", "false"))) {
+            List<String> regressions = history.check(test, sample,
+                Double.parseDouble(parameter(context, "timing.regression.factor", "3.0")),
+                TimeUnit.MILLISECONDS.toMicros(Long.parseLong(parameter(context, "timing.regression.min.millis", "100"))),
+                Integer.parseInt(parameter(context, "timing.baseline.min.samples", "3")));
+            if (!regressions.isEmpty()) {
+                throw new AssertionError("Performance regression in " + test + ": " + String.join("; ", regressions));
+            }
+        }
+        history.record(test, sample);
+    }
+
+    private static TimingHistory history(ExtensionContext context) {
+        return context.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(TimingHistory.class,
+            type -> new TimingHistory(Paths.get(parameter(context, "timing.history.file", "test-timings.json")),
+                Integer.parseInt(parameter(context, "timing.history.samples", "10"))),
+            TimingHistory.class);
+    }
+
+    private static Measurement measurement(ExtensionContext context) {
+        return context.getStore(NAMESPACE).get(Measurement.class, Measurement.class);
+    }
+
+    private static String parameter(ExtensionContext context, String key, String defaultValue) {
+        return context.getConfigurationParameter(key).orElse(defaultValue);
+    }
+
+    /**
+     * {@code class#method}, followed by the display name for parameterized and repeated
+     * invocations.
+     */
+    static String key(ExtensionContext context) {
+        String method = context.getRequiredTestMethod().getName();
+        String key = context.getRequiredTestClass().getName() + "#" + method;
+        String displayName = context.getDisplayName();
+        return displayName.startsWith(method + "(") ? key : key + " " + displayName;
+    }
+
+    private static final class Measurement {
+
+        private final long start;
+        private final long constructionNanos;
+        private long bootEnd;
+        private long bootSharedNanos;
+        private long sharedBootNanos;
+        private long fixtureNanos;
+        private long bodyNanos;
+
+        Measurement(long start, long constructionNanos) {
+            this.start = start;
+            this.constructionNanos = constructionNanos;
+        }
+
+        void endBoot(long now) {
+            if (bootEnd == 0) {
+                bootEnd = now;
+                bootSharedNanos = takeSharedBoot();
+            }
+        }
+
+        /**
+         * @return time spent booting the thread's shared context since the last call
+         */
+        long takeSharedBoot() {
+            long nanos = SharedAemContext.takeBootNanos();
+            sharedBootNanos += nanos;
+            return nanos;
+        }
+
+        Map<String, Long> toSample(long end) {
+            if (bootEnd == 0) {
+                bootSharedNanos = takeSharedBoot();
+            }
+            Map<String, Long> sample = new LinkedHashMap<>();
+            sample.put("boot", micros(constructionNanos + (bootEnd != 0 ? bootEnd : end) - start - bootSharedNanos));
+            sample.put("fixture", micros(fixtureNanos));
+            sample.put("body", micros(bodyNanos));
+            if (sharedBootNanos > 0) {
+                sample.put("sharedBoot", micros(sharedBootNanos));
+            }
+            sample.put("total", micros(constructionNanos + end - start));
+            return sample;
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.core.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-test timing history kept in a JSON file, used by {@link TimingExtension} as the
+ * baseline for regression checks. The file maps a test key to its most recent samples:
+ *
+ * <pre>
+ * { "com.example.core.models.HeroComponentTest#testHero": [
+ *     { "time": "...", "boot": 1200, "fixture": 300, "body": 45, "total": 1700 } ] }
+ * </pre>
+ *
+ * <p>Durations are in microseconds. A sample may also carry {@code sharedBoot}, the
+ * per-thread context boot that was excluded from its phases; it is kept for reference
+ * and never compared. Samples recorded in this JVM are merged into the file
+ * under a file lock when the test run ends, so forked surefire JVMs do not overwrite each
+ * other's results.</p>
+ */
+final class TimingHistory implements ExtensionContext.Store.CloseableResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TimingHistory.class);
+
+    static final List<String> PHASES = Arrays.asList("boot", "fixture", "body");
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final Path file;
+    private final int maxSamples;
+    private final Map<String, List<Map<String, Long>>> baseline;
+    private final Map<String, Map<String, Long>> recorded = new ConcurrentHashMap<>();
+
+    TimingHistory(Path file, int maxSamples) {
+        this.file = file;
+        this.maxSamples = Math.max(1, maxSamples);
+        this.baseline = toSamples(read());
+    }
+
+    /**
+     * Compares a sample with the median of the stored samples of the same test.
+     *
+     * @param factor a phase regresses when it takes longer than {@code factor} times its baseline
+     * @param minMicros and is at least this much slower in absolute terms, to ignore noise in short phases
+     * @param minSamples number of stored samples required before a test is checked
+     * @return a description of every regressed phase, empty if there is none
+     */
+    List<String> check(String test, Map<String, Long> sample, double factor, long minMicros, int minSamples) {
+        List<Map<String, Long>> samples = baseline.get(test);
+        List<String> regressions = new ArrayList<>();
+        if (samples == null || samples.size() < minSamples) {
+            return regressions;
+        }
+        for (String phase : PHASES) {
+            long median = median(samples, phase);
+            long current = sample.getOrDefault(phase, 0L);
+            if (current > median * factor && current - median >= minMicros) {
+                regressions.add(String.format("%s took %d us, baseline %d us (%.1fx)",
+                    phase, current, median, median > 0 ? (double) current / median : Double.POSITIVE_INFINITY));
+            }
+        }
+        return regressions;
+    }
+
+    void record(String test, Map<String, Long> sample) {
+        recorded.put(test, sample);
+    }
+
+    /**
+     * Writes the samples recorded in this JVM and logs the slowest tests of the run.
+     */
+    @Override
+    public void close() {
+        if (recorded.isEmpty()) {
+            return;
+        }
+        try {
+            save();
+        } catch (IOException e) {
+            LOG.warn("Cannot write test timing history {}: {}", file, e.getMessage());
+        }
+        recorded.entrySet().stream()
+            .sorted(Comparator.comparing((Map.Entry<String, Map<String, Long>> entry) -> entry.getValue().get("total"))
+                .reversed())
+            .limit(10)
+            .forEach(entry -> LOG.info("Slow test {}: {}", entry.getKey(), entry.getValue()));
+    }
+
+    void save() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path lockFile = parent.resolve(file.getFileName() + ".lock");
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            // re-read so samples written by other forks since we loaded are kept
+            ObjectNode root = read();
+            String time = Instant.now().toString();
+            for (Map.Entry<String, Map<String, Long>> entry : recorded.entrySet()) {
+                ArrayNode samples = root.has(entry.getKey()) && root.get(entry.getKey()).isArray()
+                    ? (ArrayNode) root.get(entry.getKey()) : root.putArray(entry.getKey());
+                ObjectNode sample = samples.addObject().put("time", time);
+                entry.getValue().forEach(sample::put);
+                while (samples.size() > maxSamples) {
+                    samples.remove(0);
+                }
+            }
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            mapper.writeValue(temp.toFile(), sort(root));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private ObjectNode read() {
+        if (!Files.isRegularFile(file)) {
+            return mapper.createObjectNode();
+        }
+        try {
+            JsonNode root = mapper.readTree(file.toFile());
+            return root instanceof ObjectNode ? (ObjectNode) root : mapper.createObjectNode();
+        } catch (IOException e) {
+            LOG.warn("Ignoring unreadable test timing history {}: {}", file, e.getMessage());
+            return mapper.createObjectNode();
+        }
+    }
+
+    private ObjectNode sort(ObjectNode root) {
+        ObjectNode sorted = mapper.createObjectNode();
+        List<String> names = new ArrayList<>();
+        root.fieldNames().forEachRemaining(names::add);
+        names.sort(null);
+        for (String name : names) {
+            sorted.set(name, root.get(name));
+        }
+        return sorted;
+    }
+
+    private static Map<String, List<Map<String, Long>>> toSamples(ObjectNode root) {
+        Map<String, List<Map<String, Long>>> samples = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> tests = root.fields();
+        while (tests.hasNext()) {
+            Map.Entry<String, JsonNode> test = tests.next();
+            List<Map<String, Long>> list = new ArrayList<>();
+            for (JsonNode node : test.getValue()) {
+                Map<String, Long> sample = new LinkedHashMap<>();
+                for (String phase : PHASES) {
+                    sample.put(phase, node.path(phase).asLong());
+                }
+                list.add(sample);
+            }
+            samples.put(test.getKey(), list);
+        }
+        return samples;
+    }
+
+    private static long median(List<Map<String, Long>> samples, String phase) {
+        long[] values = samples.stream().mapToLong(sample -> sample.getOrDefault(phase, 0L)).sorted().toArray();
+        return values[values.length / 2];
+    }
+}
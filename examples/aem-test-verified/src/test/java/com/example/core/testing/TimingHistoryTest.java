@@ -0,0 +1,116 @@
+package com.example.core.testing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for TimingHistory: baseline comparison, sample retention and merging of
+ * histories written by separate test JVMs.
+ */
+class TimingHistoryTest {
+
+    private static final String TEST = "com.example.SomeTest#testSomething";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testNoBaselineNeverRegresses() {
+        TimingHistory history = new TimingHistory(dir.resolve("timings.json"), 10);
+
+        assertTrue(history.check(TEST, sample(1_000_000, 0, 0), 3.0, 100_000, 3).isEmpty());
+    }
+
+    @Test
+    void testSlowContextBootIsReported() throws IOException {
+        Path file = dir.resolve("timings.json");
+        record(file, 10, sample(200_000, 50_000, 10_000), sample(210_000, 50_000, 10_000),
+            sample(190_000, 50_000, 10_000));
+        TimingHistory history = new TimingHistory(file, 10);
+
+        List<String> regressions = history.check(TEST, sample(1_000_000, 55_000, 9_000), 3.0, 100_000, 3);
+
+        assertEquals(1, regressions.size());
+        assertTrue(regressions.get(0).startsWith("boot took 1000000 us, baseline 200000 us"), regressions.get(0));
+        assertTrue(history.check(TEST, sample(400_000, 50_000, 10_000), 3.0, 100_000, 3).isEmpty());
+    }
+
+    @Test
+    void testShortPhasesBelowFloorAreIgnored() throws IOException {
+        Path file = dir.resolve("timings.json");
+        record(file, 10, sample(1_000, 100, 100), sample(1_000, 100, 100), sample(1_000, 100, 100));
+        TimingHistory history = new TimingHistory(file, 10);
+
+        // 50x slower body, but only 5 ms in absolute terms
+        assertTrue(history.check(TEST, sample(1_000, 100, 5_000), 3.0, 100_000, 3).isEmpty());
+        assertEquals(1, history.check(TEST, sample(1_000, 100, 5_000), 3.0, 1_000, 3).size());
+    }
+
+    @Test
+    void testTooFewSamplesAreNotChecked() throws IOException {
+        Path file = dir.resolve("timings.json");
+        record(file, 10, sample(1_000, 0, 0));
+
+        assertTrue(new TimingHistory(file, 10).check(TEST, sample(1_000_000, 0, 0), 3.0, 0, 3).isEmpty());
+    }
+
+    @Test
+    void testKeepsMostRecentSamples() throws IOException {
+        Path file = dir.resolve("timings.json");
+        record(file, 3, sample(1, 0, 0), sample(2, 0, 0), sample(3, 0, 0), sample(4, 0, 0), sample(5, 0, 0));
+
+        JsonNode samples = new ObjectMapper().readTree(file.toFile()).get(TEST);
+        assertEquals(3, samples.size());
+        assertEquals(3, samples.get(0).get("boot").asLong());
+        assertEquals(5, samples.get(2).get("boot").asLong());
+        assertTrue(samples.get(2).has("time"));
+        assertTrue(samples.get(2).has("total"));
+    }
+
+    @Test
+    void testSavesMergeWithOtherWriters() throws IOException {
+        Path file = dir.resolve("nested/timings.json");
+        TimingHistory first = new TimingHistory(file, 10);
+        TimingHistory second = new TimingHistory(file, 10);
+        first.record("a.FirstTest#test", sample(1, 2, 3));
+        second.record("b.SecondTest#test", sample(4, 5, 6));
+
+        first.save();
+        second.save();
+
+        JsonNode root = new ObjectMapper().readTree(file.toFile());
+        assertTrue(root.has("a.FirstTest#test"));
+        assertTrue(root.has("b.SecondTest#test"));
+    }
+
+    /**
+     * Writes the samples one run at a time, as consecutive builds would.
+     */
+    @SafeVarargs
+    private static void record(Path file, int maxSamples, Map<String, Long>... samples) throws IOException {
+        for (Map<String, Long> sample : samples) {
+            TimingHistory history = new TimingHistory(file, maxSamples);
+            history.record(TEST, sample);
+            history.save();
+        }
+    }
+
+    private static Map<String, Long> sample(long boot, long fixture, long body) {
+        Map<String, Long> sample = new LinkedHashMap<>();
+        sample.put("boot", boot);
+        sample.put("fixture", fixture);
+        sample.put("body", body);
+        sample.put("total", boot + fixture + body);
+        return sample;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.core.workflow;
+
+import com.example.core.testing.BulkContentBuilder;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.Resource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Throughput check for bulk approval: walks a folder of synthetic assets and
+ * reports commits-per-asset and assets-per-second.
+ */
+@ExtendWith(AemContextExtension.class)
+@Isolated
+class AssetApprovalBatchBenchmarkTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetApprovalBatchBenchmarkTest.class);
+
+    private static final int ASSET_COUNT = 2000;
+    private static final int BATCH_SIZE = 250;
+
+    private final AemContext context = new AemContext();
+
+    private AssetApprovalProcess process;
+
+    @BeforeEach
+    void setUp() {
+        process = new AssetApprovalProcess();
+        process.activate(AssetApprovalProcessTest.config(BATCH_SIZE));
+
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver()).folderSize(100);
+        bulk.assets("/content/dam/bulk", ASSET_COUNT);
+        bulk.commit();
+    }
+
+    @Test
+    void testBulkApprovalThroughput() throws Exception {
+        CommitCountingResolver resolver = new CommitCountingResolver(context.resourceResolver());
+        Resource folder = context.resourceResolver().getResource("/content/dam/bulk");
+
+        long start = System.nanoTime();
+        int updated = process.updateFolder(resolver, folder, "approved");
+        long elapsedNanos = System.nanoTime() - start;
+
+        assertEquals(ASSET_COUNT, updated);
+        assertEquals(ASSET_COUNT / BATCH_SIZE, resolver.getCommits());
+
+        double commitsPerAsset = (double) resolver.getCommits() / updated;
+        double assetsPerSecond = updated / (elapsedNanos / 1_000_000_000.0);
+        LOG.info("Bulk approval: {} assets, {} commits ({} commits/asset), {} assets/s",
+            updated, resolver.getCommits(), String.format("%.4f", commitsPerAsset),
+            String.format("%.0f", assetsPerSecond));
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.core.workflow;
+
+import com.example.core.testing.BulkContentBuilder;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.parallel.Isolated;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs many concurrent approvals, each thread with its own resolver, and counts the
+ * commits that actually reach the repository.
+ */
+@ExtendWith(AemContextExtension.class)
+@Isolated
+class AssetApprovalConcurrencyTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetApprovalConcurrencyTest.class);
+
+    private static final int THREADS = 8;
+    private static final int ROUNDS = 25;
+
+    private final AemContext context = new AemContext();
+    private final AssetApprovalProcess process = new AssetApprovalProcess();
+
+    private List<String> assets;
+
+    // number of updates reported as changed by the last runConcurrently call
+    private int changedTotal;
+
+    @BeforeEach
+    void setUp() {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver()).folderSize(100);
+        assets = bulk.assets("/content/dam/concurrent", THREADS * ROUNDS);
+        bulk.commit();
+    }
+
+    @Test
+    void testSameAssetSameStatusIsWrittenOnce() throws Exception {
+        String shared = assets.get(0);
+
+        int commits = runConcurrently((resolver, thread) -> {
+            int changed = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                if (process.updateAsset(resolver, resolver.getResource(shared), "approved")) {
+                    changed++;
+                }
+            }
+            return changed;
+        });
+
+        assertEquals(1, commits);
+        assertEquals(1, changedTotal);
+        assertEquals("approved", status(shared));
+    }
+
+    @Test
+    void testDistinctAssetsAreWrittenOnceEach() throws Exception {
+        int commits = runConcurrently((resolver, thread) -> {
+            int changed = 0;
+            // every thread approves its own slice twice; the second pass must be a no-op
+            for (int pass = 0; pass < 2; pass++) {
+                for (int round = 0; round < ROUNDS; round++) {
+                    String path = assets.get(thread * ROUNDS + round);
+                    if (process.updateAsset(resolver, resolver.getResource(path), "approved")) {
+                        changed++;
+                    }
+                }
+            }
+            return changed;
+        });
+
+        assertEquals(assets.size(), commits);
+        assertEquals(assets.size(), changedTotal);
+        for (String path : assets) {
+            assertEquals("approved", status(path), path);
+        }
+    }
+
+    @Test
+    void testAlternatingStatusOnSharedAssetCommitsOnlyRealChanges() throws Exception {
+        String shared = assets.get(0);
+
+        int commits = runConcurrently((resolver, thread) -> {
+            int changed = 0;
+            String status = thread % 2 == 0 ? "approved" : "rejected";
+            for (int round = 0; round < ROUNDS; round++) {
+                resolver.refresh();
+                if (process.updateAsset(resolver, resolver.getResource(shared), status)) {
+                    changed++;
+                }
+            }
+            return changed;
+        });
+
+        assertEquals(changedTotal, commits);
+        assertTrue(commits <= THREADS * ROUNDS);
+        String finalStatus = status(shared);
+        assertTrue("approved".equals(finalStatus) || "rejected".equals(finalStatus), finalStatus);
+    }
+
+    @Test
+    void testMixedBatchesAndSingleWrites() throws Exception {
+        int commits = runConcurrently((resolver, thread) -> {
+            if (thread % 2 == 0) {
+                return process.updateAssets(resolver, assets.subList(0, 100), "rejected");
+            }
+            int changed = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                String path = assets.get(100 + thread * ROUNDS / 2 + round % (ROUNDS / 2));
+                if (process.updateAsset(resolver, resolver.getResource(path), "approved")) {
+                    changed++;
+                }
+            }
+            return changed;
+        });
+
+        LOG.info("Mixed batch and single approvals: {} commits, {} assets changed", commits, changedTotal);
+        for (String path : assets.subList(0, 100)) {
+            assertEquals("rejected", status(path), path);
+        }
+    }
+
+    /**
+     * Runs the task on {@link #THREADS} threads, each with its own commit-counting
+     * service resolver, and returns the total number of successful commits.
+     */
+    private int runConcurrently(Task task) throws Exception {
+        ResourceResolverFactory factory = context.getService(ResourceResolverFactory.class);
+        Map<String, Object> authInfo = Collections.singletonMap(ResourceResolverFactory.SUBSERVICE, "asset-approval");
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CommitCountingResolver> resolvers = new ArrayList<>();
+        List<Future<Integer>> futures = new ArrayList<>();
+        AtomicInteger changed = new AtomicInteger();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                CommitCountingResolver resolver = new CommitCountingResolver(factory.getServiceResourceResolver(authInfo));
+                resolvers.add(resolver);
+                int thread = t;
+                Callable<Integer> callable = () -> {
+                    start.await();
+                    return changed.addAndGet(task.run(resolver, thread));
+                };
+                futures.add(executor.submit(callable));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Integer> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            LOG.debug("{} threads finished in {} ms", THREADS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin));
+        } finally {
+            executor.shutdownNow();
+            resolvers.forEach(ResourceResolver::close);
+        }
+        changedTotal = changed.get();
+        return resolvers.stream().mapToInt(CommitCountingResolver::getCommits).sum();
+    }
+
+    private String status(String path) {
+        ResourceResolver resolver = context.resourceResolver();
+        resolver.refresh();
+        return process.getStatus(resolver.getResource(path));
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        int run(ResourceResolver resolver, int thread) throws Exception;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.core.workflow;
+
+import com.adobe.granite.workflow.WorkflowException;
+import com.adobe.granite.workflow.WorkflowSession;
+import com.adobe.granite.workflow.exec.WorkItem;
+import com.adobe.granite.workflow.exec.Workflow;
+import com.adobe.granite.workflow.exec.WorkflowData;
+import com.adobe.granite.workflow.metadata.MetaDataMap;
+import com.adobe.granite.workflow.metadata.SimpleMetaDataMap;
+import com.example.core.audit.ApprovalAuditLog;
+import com.example.core.audit.AuditEntry;
+import com.example.core.testing.BulkContentBuilder;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.apache.sling.api.wrappers.ResourceResolverWrapper;
+import org.apache.sling.event.jobs.Job;
+import org.apache.sling.event.jobs.JobManager;
+import org.apache.sling.event.jobs.consumer.JobConsumer.JobResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for asynchronous approval: AssetApprovalProcess enqueues jobs and
+ * AssetApprovalJobConsumer processes them, using {@link LocalJobQueue} in place of
+ * the Sling job queue to check ordering, retries, auditing and burst throughput.
+ */
+@ExtendWith({AemContextExtension.class, MockitoExtension.class})
+class AssetApprovalJobConsumerTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AssetApprovalJobConsumerTest.class);
+
+    private static final String ASSET = "/content/dam/async/image.jpg";
+
+    private final AemContext context = new AemContext();
+    private final LocalJobQueue queue = new LocalJobQueue();
+
+    @Mock
+    private WorkItem workItem;
+
+    @Mock
+    private WorkflowSession workflowSession;
+
+    @Mock
+    private WorkflowData workflowData;
+
+    @BeforeEach
+    void setUp() throws PersistenceException {
+        createAsset(ASSET);
+        context.resourceResolver().commit();
+
+        lenient().when(workItem.getWorkflowData()).thenReturn(workflowData);
+        lenient().when(workflowData.getPayload()).thenReturn(ASSET);
+        lenient().when(workflowSession.adaptTo(ResourceResolver.class)).thenReturn(context.resourceResolver());
+    }
+
+    @Test
+    void testAsyncModeEnqueuesWithoutWriting() throws WorkflowException {
+        AssetApprovalProcess process = asyncProcess();
+
+        process.execute(workItem, workflowSession, args("action=approve"));
+
+        assertEquals(1, queue.size());
+        assertNull(status(ASSET));
+
+        assertEquals(1, queue.drain(consumer(context.getService(ResourceResolverFactory.class)), 0));
+        assertEquals("approved", status(ASSET));
+    }
+
+    @Test
+    void testJobIsAuditedForInitiatingUser() throws WorkflowException {
+        ApprovalAuditLog auditLog = mock(ApprovalAuditLog.class);
+        context.registerService(ApprovalAuditLog.class, auditLog);
+        Workflow workflow = mock(Workflow.class);
+        when(workflow.getInitiator()).thenReturn("editor");
+        when(workItem.getWorkflow()).thenReturn(workflow);
+
+        asyncProcess().execute(workItem, workflowSession, args("action=approve"));
+        queue.drain(consumer(context.getService(ResourceResolverFactory.class)), 0);
+
+        assertEquals("editor", queue.getCompleted().get(0)
+            .getProperty(AssetApprovalJobConsumer.PROPERTY_USER_ID, String.class));
+        ArgumentCaptor<AuditEntry> entry = ArgumentCaptor.forClass(AuditEntry.class);
+        verify(auditLog).record(entry.capture());
+        assertEquals(ASSET, entry.getValue().getAssetPath());
+        assertEquals("editor", entry.getValue().getUserId());
+        assertEquals("approved", entry.getValue().getNewStatus());
+    }
+
+    @Test
+    void testAsyncModeWithoutJobManagerApprovesInline() throws WorkflowException {
+        AssetApprovalProcess process = new AssetApprovalProcess();
+        process.activate(AssetApprovalProcessTest.config(10, true));
+
+        process.execute(workItem, workflowSession, args("action=approve"));
+
+        assertEquals(0, queue.size());
+        assertEquals("approved", status(ASSET));
+    }
+
+    @Test
+    void testUnknownActionIsNotEnqueued() throws WorkflowException {
+        asyncProcess().execute(workItem, workflowSession, args("action=disapprove"));
+
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void testJobsAreProcessedInEnqueueOrder() throws WorkflowException {
+        AssetApprovalProcess process = asyncProcess();
+
+        process.execute(workItem, workflowSession, args("action=approve"));
+        process.execute(workItem, workflowSession, args("action=reject"));
+        queue.drain(consumer(context.getService(ResourceResolverFactory.class)), 0);
+
+        List<Job> completed = queue.getCompleted();
+        assertEquals(2, completed.size());
+        assertEquals("approved", completed.get(0).getProperty(AssetApprovalJobConsumer.PROPERTY_STATUS, String.class));
+        assertEquals("rejected", completed.get(1).getProperty(AssetApprovalJobConsumer.PROPERTY_STATUS, String.class));
+        assertEquals("rejected", status(ASSET));
+    }
+
+    @Test
+    void testFailedCommitIsRetried() throws Exception {
+        // the first attempt exhausts the in-process commit retries, the second succeeds
+        int failures = AssetApprovalProcess.DEFAULT_MAX_RETRIES + 2;
+        FailingCommitResolver resolver = new FailingCommitResolver(context.resourceResolver(), failures);
+        enqueue("approved", ASSET);
+
+        assertEquals(1, queue.drain(consumer(factoryFor(resolver)), 3));
+
+        assertEquals(2, queue.getAttempts(queue.getCompleted().get(0)));
+        assertEquals("approved", status(ASSET));
+    }
+
+    @Test
+    void testJobFailsOnceRetriesAreExhausted() throws Exception {
+        FailingCommitResolver resolver = new FailingCommitResolver(context.resourceResolver(), Integer.MAX_VALUE);
+        enqueue("approved", ASSET);
+
+        assertEquals(0, queue.drain(consumer(factoryFor(resolver)), 2));
+
+        assertEquals(1, queue.getFailed().size());
+        assertEquals(3, queue.getAttempts(queue.getFailed().get(0)));
+        assertNull(status(ASSET));
+    }
+
+    @Test
+    void testJobWithoutStatusIsCancelled() {
+        Job job = queue.add(AssetApprovalJobConsumer.TOPIC, singletonPaths(ASSET));
+
+        JobResult result = consumer(context.getService(ResourceResolverFactory.class)).process(job);
+
+        assertEquals(JobResult.CANCEL, result);
+    }
+
+    @Test
+    void testFolderAndAssetPathsInOneJob() throws PersistenceException {
+        createAsset("/content/dam/async/folder/a.jpg");
+        createAsset("/content/dam/async/folder/b.jpg");
+        createAsset("/content/dam/async/other.jpg");
+        context.resourceResolver().commit();
+        enqueue("rejected", "/content/dam/async/folder", "/content/dam/async/other.jpg", "/content/dam/async/missing.jpg");
+
+        assertEquals(1, queue.drain(consumer(context.getService(ResourceResolverFactory.class)), 0));
+
+        assertEquals("rejected", status("/content/dam/async/folder/a.jpg"));
+        assertEquals("rejected", status("/content/dam/async/folder/b.jpg"));
+        assertEquals("rejected", status("/content/dam/async/other.jpg"));
+        assertNull(status(ASSET));
+    }
+
+    @Test
+    void testBurstOfWorkflowStepsReturnsBeforeWriting() throws WorkflowException {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver()).folderSize(100);
+        List<String> paths = bulk.assets("/content/dam/burst", 1000);
+        bulk.commit();
+        AssetApprovalProcess process = asyncProcess();
+        MetaDataMap approve = args("action=approve");
+
+        long start = System.nanoTime();
+        for (String path : paths) {
+            when(workflowData.getPayload()).thenReturn(path);
+            process.execute(workItem, workflowSession, approve);
+        }
+        long enqueueNanos = System.nanoTime() - start;
+        assertEquals(paths.size(), queue.size());
+        assertNull(status(paths.get(0)));
+
+        start = System.nanoTime();
+        int processed = queue.drain(consumer(context.getService(ResourceResolverFactory.class)), 0);
+        long drainNanos = System.nanoTime() - start;
+
+        LOG.info("{} workflow steps enqueued in {} ms, consumer processed {} jobs in {} ms ({} jobs/s)",
+            paths.size(), TimeUnit.NANOSECONDS.toMillis(enqueueNanos), processed,
+            TimeUnit.NANOSECONDS.toMillis(drainNanos),
+            processed * TimeUnit.SECONDS.toNanos(1) / Math.max(1, drainNanos));
+
+        assertEquals(paths.size(), processed);
+        for (String path : paths) {
+            assertEquals("approved", status(path), path);
+        }
+    }
+
+    private AssetApprovalProcess asyncProcess() {
+        context.registerService(JobManager.class, queue.getJobManager());
+        return context.registerInjectActivateService(new AssetApprovalProcess(), "async", true);
+    }
+
+    private AssetApprovalJobConsumer consumer(ResourceResolverFactory factory) {
+        AssetApprovalProcess process = context.registerInjectActivateService(new AssetApprovalProcess());
+        return new AssetApprovalJobConsumer(factory, process, new AssetApprovalJobConsumer.Config() {
+            @Override
+            public int batchSize() { return 50; }
+            @Override
+            public String subservice() { return "asset-approval"; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return AssetApprovalJobConsumer.Config.class;
+            }
+        });
+    }
+
+    private static ResourceResolverFactory factoryFor(ResourceResolver resolver) throws Exception {
+        ResourceResolverFactory factory = mock(ResourceResolverFactory.class);
+        when(factory.getServiceResourceResolver(anyMap())).thenReturn(resolver);
+        return factory;
+    }
+
+    private void enqueue(String status, String... paths) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AssetApprovalJobConsumer.PROPERTY_PATHS, paths);
+        properties.put(AssetApprovalJobConsumer.PROPERTY_STATUS, status);
+        queue.add(AssetApprovalJobConsumer.TOPIC, properties);
+    }
+
+    private static Map<String, Object> singletonPaths(String path) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AssetApprovalJobConsumer.PROPERTY_PATHS, new String[] {path});
+        return properties;
+    }
+
+    private static MetaDataMap args(String processArgs) {
+        MetaDataMap metaData = new SimpleMetaDataMap();
+        metaData.put("PROCESS_ARGS", processArgs);
+        return metaData;
+    }
+
+    private String status(String path) {
+        ResourceResolver resolver = context.resourceResolver();
+        resolver.refresh();
+        return new AssetApprovalProcess().getStatus(resolver.getResource(path));
+    }
+
+    private void createAsset(String path) {
+        context.create().resource(path, "jcr:primaryType", "dam:Asset");
+        context.create().resource(path + "/jcr:content", "jcr:primaryType", "dam:AssetContent");
+        context.create().resource(path + "/jcr:content/metadata", "jcr:primaryType", "nt:unstructured");
+    }
+
+    /**
+     * Shares the test resolver with the consumer, failing the first commits and ignoring
+     * close so the test can keep using it.
+     */
+    private static final class FailingCommitResolver extends ResourceResolverWrapper {
+
+        private int failures;
+
+        FailingCommitResolver(ResourceResolver resolver, int failures) {
+            super(resolver);
+            this.failures = failures;
+        }
+
+        @Override
+        public void commit() throws PersistenceException {
+            if (failures > 0) {
+                failures--;
+                throw new PersistenceException("simulated conflict");
+            }
+            super.commit();
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -6,16 +6,24 @@ import com.adobe.granite.workflow.exec.WorkItem;
 import com.adobe.granite.workflow.exec.WorkflowData;
 import com.adobe.granite.workflow.metadata.MetaDataMap;
 import com.adobe.granite.workflow.metadata.SimpleMetaDataMap;
+import com.example.core.audit.ApprovalAuditLog;
+import com.example.core.audit.AuditEntry;
 import io.wcm.testing.mock.aem.junit5.AemContext;
 import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.PersistenceException;
 import org.apache.sling.api.resource.Resource;
 import org.apache.sling.api.resource.ResourceResolver;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
@@ -88,6 +96,17 @@ class AssetApprovalProcessTest {
         assertEquals("rejected", status);
     }
 
+    @Test
+    void testUnknownActionLeavesStatusUnchanged() throws WorkflowException {
+        MetaDataMap metaData = new SimpleMetaDataMap();
+        metaData.put("PROCESS_ARGS", "action=disapprove");
+
+        process.execute(workItem, workflowSession, metaData);
+
+        Resource assetResource = context.resourceResolver().getResource("/content/dam/test-assets/image.jpg");
+        assertNull(process.getStatus(assetResource));
+    }
+
     @Test
     void testDefaultActionIsApprove() throws WorkflowException {
         // Empty metadata should default to approve
@@ -134,4 +153,170 @@ class AssetApprovalProcessTest {
 
         assertNull(status);
     }
+
+    @Test
+    void testFolderPayloadUpdatesAllAssetsInBatches() throws WorkflowException {
+        for (int i = 0; i < 5; i++) {
+            createAsset("/content/dam/batch/sub" + (i % 2) + "/asset" + i + ".jpg");
+        }
+        process.activate(config(2));
+
+        CommitCountingResolver resolver = new CommitCountingResolver(context.resourceResolver());
+        when(workflowSession.adaptTo(ResourceResolver.class)).thenReturn(resolver);
+        when(workflowData.getPayload()).thenReturn("/content/dam/batch");
+
+        MetaDataMap metaData = new SimpleMetaDataMap();
+        metaData.put("PROCESS_ARGS", "action=reject");
+
+        process.execute(workItem, workflowSession, metaData);
+
+        for (int i = 0; i < 5; i++) {
+            Resource asset = context.resourceResolver().getResource("/content/dam/batch/sub" + (i % 2) + "/asset" + i + ".jpg");
+            assertEquals("rejected", process.getStatus(asset));
+        }
+        assertEquals(3, resolver.getCommits());
+    }
+
+    @Test
+    void testUpdateAssetsSkipsMissingPaths() throws Exception {
+        createAsset("/content/dam/list/a.jpg");
+        createAsset("/content/dam/list/b.jpg");
+
+        CommitCountingResolver resolver = new CommitCountingResolver(context.resourceResolver());
+        int updated = process.updateAssets(resolver,
+            Arrays.asList("/content/dam/list/a.jpg", "/content/dam/list/missing.jpg", "/content/dam/list/b.jpg"),
+            "approved");
+
+        assertEquals(2, updated);
+        assertEquals(1, resolver.getCommits());
+        assertEquals("approved", process.getStatus(context.resourceResolver().getResource("/content/dam/list/b.jpg")));
+    }
+
+    @Test
+    void testUnchangedStatusIsNotWritten() throws WorkflowException {
+        CommitCountingResolver resolver = new CommitCountingResolver(context.resourceResolver());
+        when(workflowSession.adaptTo(ResourceResolver.class)).thenReturn(resolver);
+        MetaDataMap metaData = new SimpleMetaDataMap();
+        metaData.put("PROCESS_ARGS", "action=approve");
+
+        process.execute(workItem, workflowSession, metaData);
+        process.execute(workItem, workflowSession, metaData);
+
+        assertEquals(1, resolver.getCommits());
+    }
+
+    @Test
+    void testConflictingCommitIsRetried() throws Exception {
+        context.resourceResolver().commit();
+        process.activate(config(10));
+        CommitCountingResolver resolver = new CommitCountingResolver(context.resourceResolver()).failNext(2);
+        Resource asset = context.resourceResolver().getResource("/content/dam/test-assets/image.jpg");
+
+        assertTrue(process.updateAsset(resolver, asset, "approved"));
+
+        assertEquals(1, resolver.getCommits());
+        assertEquals("approved", process.getStatus(context.resourceResolver().getResource("/content/dam/test-assets/image.jpg")));
+    }
+
+    @Test
+    void testCommitFailsOnceRetriesAreExhausted() throws PersistenceException {
+        context.resourceResolver().commit();
+        process.activate(config(10));
+        CommitCountingResolver resolver = new CommitCountingResolver(context.resourceResolver())
+            .failNext(AssetApprovalProcess.DEFAULT_MAX_RETRIES + 1);
+        Resource asset = context.resourceResolver().getResource("/content/dam/test-assets/image.jpg");
+
+        assertThrows(PersistenceException.class, () -> process.updateAsset(resolver, asset, "approved"));
+
+        assertEquals(0, resolver.getCommits());
+        assertNull(process.getStatus(context.resourceResolver().getResource("/content/dam/test-assets/image.jpg")));
+    }
+
+    @Test
+    void testBatchRetryReappliesPendingChanges() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            createAsset("/content/dam/retry/asset" + i + ".jpg");
+        }
+        context.resourceResolver().commit();
+        process.activate(config(10));
+        CommitCountingResolver resolver = new CommitCountingResolver(context.resourceResolver()).failNext(1);
+
+        int updated = process.updateFolder(resolver, context.resourceResolver().getResource("/content/dam/retry"), "rejected");
+
+        assertEquals(4, updated);
+        assertEquals(1, resolver.getCommits());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("rejected", process.getStatus(context.resourceResolver().getResource("/content/dam/retry/asset" + i + ".jpg")));
+        }
+    }
+
+    @Test
+    void testCommittedChangesAreAudited() throws WorkflowException {
+        ApprovalAuditLog auditLog = mock(ApprovalAuditLog.class);
+        context.registerService(ApprovalAuditLog.class, auditLog);
+        AssetApprovalProcess audited = context.registerInjectActivateService(new AssetApprovalProcess());
+        MetaDataMap approve = new SimpleMetaDataMap();
+        approve.put("PROCESS_ARGS", "action=approve");
+        MetaDataMap reject = new SimpleMetaDataMap();
+        reject.put("PROCESS_ARGS", "action=reject");
+
+        audited.execute(workItem, workflowSession, approve);
+        audited.execute(workItem, workflowSession, approve);
+        audited.execute(workItem, workflowSession, reject);
+
+        ArgumentCaptor<AuditEntry> entries = ArgumentCaptor.forClass(AuditEntry.class);
+        verify(auditLog, times(2)).record(entries.capture());
+        AuditEntry first = entries.getAllValues().get(0);
+        assertEquals("/content/dam/test-assets/image.jpg", first.getAssetPath());
+        assertNull(first.getOldStatus());
+        assertEquals("approved", first.getNewStatus());
+        assertEquals("approved", entries.getAllValues().get(1).getOldStatus());
+        assertEquals("rejected", entries.getAllValues().get(1).getNewStatus());
+    }
+
+    @Test
+    void testAuditIsRecordedAfterAssetLockIsReleased() throws PersistenceException {
+        String path = "/content/dam/test-assets/image.jpg";
+        AtomicBoolean lockHeld = new AtomicBoolean(true);
+        ApprovalAuditLog auditLog = mock(ApprovalAuditLog.class);
+        doAnswer(invocation -> {
+            lockHeld.set(AssetApprovalProcess.ASSET_LOCKS.get(path).isHeldByCurrentThread());
+            return null;
+        }).when(auditLog).record(any(AuditEntry.class));
+        context.registerService(ApprovalAuditLog.class, auditLog);
+        AssetApprovalProcess audited = context.registerInjectActivateService(new AssetApprovalProcess());
+
+        assertTrue(audited.updateAsset(context.resourceResolver(), context.resourceResolver().getResource(path),
+            "approved"));
+
+        verify(auditLog).record(any(AuditEntry.class));
+        assertFalse(lockHeld.get());
+    }
+
+    private void createAsset(String path) {
+        context.create().resource(path, "jcr:primaryType", "dam:Asset");
+        context.create().resource(path + "/jcr:content", "jcr:primaryType", "dam:AssetContent");
+        context.create().resource(path + "/jcr:content/metadata", "jcr:primaryType", "nt:unstructured");
+    }
+
+    static AssetApprovalProcess.Config config(int batchSize) {
+        return config(batchSize, false);
+    }
+
+    static AssetApprovalProcess.Config config(int batchSize, boolean async) {
+        return new AssetApprovalProcess.Config() {
+            @Override
+            public int batchSize() { return batchSize; }
+            @Override
+            public boolean async() { return async; }
+            @Override
+            public int maxRetries() { return AssetApprovalProcess.DEFAULT_MAX_RETRIES; }
+            @Override
+            public long retryBackoffMillis() { return 1; }
+            @Override
+            public Class<? extends Annotation> annotationType() {
+                return AssetApprovalProcess.Config.class;
+            }
+        };
+    }
 }
@@ -0,0 +1,43 @@
+package com.example.core.workflow;
+
+import org.apache.sling.api.resource.PersistenceException;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.wrappers.ResourceResolverWrapper;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ResourceResolver wrapper that counts commits, used to assert how many
+ * repository saves a workflow step performs. It can also fail a number of
+ * commits first to simulate conflicting writers.
+ */
+class CommitCountingResolver extends ResourceResolverWrapper {
+
+    private final AtomicInteger commits = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+
+    CommitCountingResolver(ResourceResolver resolver) {
+        super(resolver);
+    }
+
+    /**
+     * Makes the next {@code count} commits throw a {@link PersistenceException}.
+     */
+    CommitCountingResolver failNext(int count) {
+        failures.set(count);
+        return this;
+    }
+
+    @Override
+    public void commit() throws PersistenceException {
+        if (failures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new PersistenceException("simulated conflict");
+        }
+        commits.incrementAndGet();
+        super.commit();
+    }
+
+    int getCommits() {
+        return commits.get();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.core.workflow;
+
+import org.apache.sling.event.jobs.Job;
+import org.apache.sling.event.jobs.JobManager;
+import org.apache.sling.event.jobs.consumer.JobConsumer;
+import org.apache.sling.event.jobs.consumer.JobConsumer.JobResult;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stand-in for an ordered Sling job queue: jobs added through {@link #getJobManager()}
+ * are held in FIFO order and processed by {@link #drain(JobConsumer, int)}, which retries
+ * a failed job in place up to the given number of times before moving on.
+ */
+class LocalJobQueue {
+
+    private final Deque<Job> pending = new ArrayDeque<>();
+    private final List<Job> completed = new ArrayList<>();
+    private final List<Job> failed = new ArrayList<>();
+    private final Map<Job, AtomicInteger> attempts = new HashMap<>();
+    private final JobManager jobManager = mock(JobManager.class);
+    private int sequence;
+
+    LocalJobQueue() {
+        lenient().when(jobManager.addJob(anyString(), anyMap())).thenAnswer(invocation ->
+            add(invocation.getArgument(0), invocation.getArgument(1)));
+    }
+
+    JobManager getJobManager() {
+        return jobManager;
+    }
+
+    synchronized Job add(String topic, Map<String, Object> properties) {
+        Map<String, Object> copy = new HashMap<>(properties);
+        AtomicInteger attempt = new AtomicInteger();
+        Job job = mock(Job.class);
+        String id = topic + "/" + (++sequence);
+        lenient().when(job.getId()).thenReturn(id);
+        lenient().when(job.getTopic()).thenReturn(topic);
+        lenient().when(job.getRetryCount()).thenAnswer(invocation -> Math.max(0, attempt.get() - 1));
+        lenient().when(job.getProperty(anyString(), any(Class.class))).thenAnswer(invocation -> {
+            Class<?> type = invocation.getArgument(1);
+            Object value = copy.get(invocation.<String>getArgument(0));
+            return type.isInstance(value) ? type.cast(value) : null;
+        });
+        attempts.put(job, attempt);
+        pending.add(job);
+        return job;
+    }
+
+    /**
+     * Processes all pending jobs in order.
+     *
+     * @return number of jobs processed successfully
+     */
+    synchronized int drain(JobConsumer consumer, int maxRetries) {
+        int ok = 0;
+        while (!pending.isEmpty()) {
+            Job job = pending.poll();
+            AtomicInteger attempt = attempts.get(job);
+            JobResult result;
+            do {
+                attempt.incrementAndGet();
+                result = consumer.process(job);
+            } while (result == JobResult.FAILED && attempt.get() <= maxRetries);
+
+            if (result == JobResult.OK) {
+                completed.add(job);
+                ok++;
+            } else {
+                failed.add(job);
+            }
+        }
+        return ok;
+    }
+
+    synchronized int size() {
+        return pending.size();
+    }
+
+    synchronized List<Job> getCompleted() {
+        return new ArrayList<>(completed);
+    }
+
+    synchronized List<Job> getFailed() {
+        return new ArrayList<>(failed);
+    }
+
+    synchronized int getAttempts(Job job) {
+        return attempts.get(job).get();
+    }
+}
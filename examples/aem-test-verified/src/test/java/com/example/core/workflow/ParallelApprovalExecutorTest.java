@@ -0,0 +1,172 @@
+package com.example.core.workflow;
+
+import com.example.core.audit.ApprovalAuditLog;
+import com.example.core.audit.AuditEntry;
+import com.example.core.testing.BulkContentBuilder;
+import io.wcm.testing.mock.aem.junit5.AemContext;
+import io.wcm.testing.mock.aem.junit5.AemContextExtension;
+import org.apache.sling.api.resource.ResourceResolver;
+import org.apache.sling.api.resource.ResourceResolverFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for ParallelApprovalExecutor: partitioning, per-worker resolvers, result
+ * merging against a mock repository with thousands of assets and auditing through
+ * the registered AssetApprovalProcess.
+ */
+@ExtendWith(AemContextExtension.class)
+class ParallelApprovalExecutorTest {
+
+    private static final int ASSET_COUNT = 3000;
+
+    private final AemContext context = new AemContext();
+
+    private final List<ParallelApprovalExecutor> executors = new ArrayList<>();
+
+    private List<String> assetPaths;
+
+    @BeforeEach
+    void setUp() {
+        BulkContentBuilder bulk = new BulkContentBuilder(context.resourceResolver()).folderSize(100);
+        assetPaths = bulk.assets("/content/dam/parallel", ASSET_COUNT);
+        bulk.commit();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executors.forEach(ParallelApprovalExecutor::deactivate);
+    }
+
+    @Test
+    void testApprovesAllAssetsConcurrently() {
+        ParallelApprovalExecutor executor = createExecutor(8, 100);
+
+        ApprovalResult result = executor.execute(assetPaths, "approved");
+
+        assertEquals(ASSET_COUNT, result.getUpdated());
+        assertEquals(0, result.getSkipped());
+        assertFalse(result.hasFailures());
+
+        ResourceResolver resolver = context.resourceResolver();
+        resolver.refresh();
+        AssetApprovalProcess process = new AssetApprovalProcess();
+        for (String path : assetPaths) {
+            assertEquals("approved", process.getStatus(resolver.getResource(path)), path);
+        }
+    }
+
+    @Test
+    void testMissingPathsAreSkipped() {
+        ParallelApprovalExecutor executor = createExecutor(4, 10);
+
+        List<String> paths = new ArrayList<>(assetPaths.subList(0, 20));
+        paths.add("/content/dam/parallel/missing.jpg");
+
+        ApprovalResult result = executor.execute(paths, "rejected");
+
+        assertEquals(20, result.getUpdated());
+        assertEquals(1, result.getSkipped());
+        assertFalse(result.hasFailures());
+    }
+
+    @Test
+    void testChangesAreAuditedForInitiatingUser() {
+        ApprovalAuditLog auditLog = mock(ApprovalAuditLog.class);
+        context.registerService(ApprovalAuditLog.class, auditLog);
+
+        createExecutor(4, 10).execute(assetPaths.subList(0, 20), "approved", "editor");
+
+        ArgumentCaptor<AuditEntry> entries = ArgumentCaptor.forClass(AuditEntry.class);
+        verify(auditLog, times(20)).record(entries.capture());
+        for (AuditEntry entry : entries.getAllValues()) {
+            assertEquals("editor", entry.getUserId());
+            assertEquals("approved", entry.getNewStatus());
+        }
+    }
+
+    @Test
+    void testEmptyPathList() {
+        ApprovalResult result = createExecutor(4, 10).execute(Collections.emptyList(), "approved");
+
+        assertEquals(0, result.getUpdated());
+        assertEquals(0, result.getSkipped());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailingWorkerCancelsTheOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AssetApprovalProcess process = mock(AssetApprovalProcess.class);
+        when(process.updateAssets(any(ResourceResolver.class), any(Iterable.class), anyString(), any(), anyInt()))
+            .thenAnswer(invocation -> {
+                List<String> chunk = invocation.getArgument(1);
+                if (chunk.contains("/fail")) {
+                    throw new IllegalStateException("simulated failure");
+                }
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return chunk.size();
+            });
+        ParallelApprovalExecutor executor = createExecutor(process, 2, 10);
+
+        assertThrows(IllegalStateException.class,
+            () -> executor.execute(Arrays.asList("/fail", "/blocked"), "approved"));
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+        release.countDown();
+        assertEquals(2, executor.execute(Arrays.asList("/a", "/b"), "approved").getUpdated());
+    }
+
+    @Test
+    void testPartitionCoversAllPaths() {
+        List<String> paths = Arrays.asList("a", "b", "c", "d", "e", "f", "g");
+
+        List<List<String>> partitions = ParallelApprovalExecutor.partition(paths, 3);
+
+        assertEquals(3, partitions.size());
+        assertEquals(Arrays.asList("a", "b", "c"), partitions.get(0));
+        assertEquals(Arrays.asList("g"), partitions.get(2));
+    }
+
+    private ParallelApprovalExecutor createExecutor(int threads, int batchSize) {
+        return createExecutor(context.registerInjectActivateService(new AssetApprovalProcess()), threads, batchSize);
+    }
+
+    private ParallelApprovalExecutor createExecutor(AssetApprovalProcess process, int threads, int batchSize) {
+        ResourceResolverFactory factory = context.getService(ResourceResolverFactory.class);
+        ParallelApprovalExecutor executor = new ParallelApprovalExecutor(factory, process,
+            new ParallelApprovalExecutor.Config() {
+                @Override
+                public int threads() { return threads; }
+                @Override
+                public int batchSize() { return batchSize; }
+                @Override
+                public String subservice() { return "asset-approval"; }
+                @Override
+                public Class<? extends Annotation> annotationType() {
+                    return ParallelApprovalExecutor.Config.class;
+                }
+            });
+        executors.add(executor);
+        return executor;
+    }
+}
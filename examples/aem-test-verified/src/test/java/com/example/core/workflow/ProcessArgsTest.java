@@ -0,0 +1,75 @@
+package com.example.core.workflow;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ProcessArgsTest {
+
+    @Test
+    void testParsesKeyValuePairs() {
+        ProcessArgs args = ProcessArgs.parse("action=reject, batchSize=25\nowner=dam-admin");
+
+        assertEquals(ProcessArgs.Action.REJECT, args.getAction());
+        assertEquals("rejected", args.getAction().getStatus());
+        assertEquals(25, args.getInt("batchSize", 0));
+        assertEquals("dam-admin", args.get("owner"));
+    }
+
+    @Test
+    void testActionMatchIsExact() {
+        assertEquals(ProcessArgs.Action.NONE, ProcessArgs.parse("action=disapprove").getAction());
+        assertEquals(ProcessArgs.Action.APPROVE, ProcessArgs.parse("action=APPROVE").getAction());
+    }
+
+    @Test
+    void testBareTokenIsAction() {
+        assertEquals(ProcessArgs.Action.REJECT, ProcessArgs.parse("reject").getAction());
+    }
+
+    @Test
+    void testEmptyArgs() {
+        ProcessArgs args = ProcessArgs.of(null);
+
+        assertEquals(ProcessArgs.Action.NONE, args.getAction());
+        assertNull(args.getAction().getStatus());
+        assertEquals(7, args.getInt("batchSize", 7));
+    }
+
+    @Test
+    void testInvalidIntFallsBackToDefault() {
+        assertEquals(3, ProcessArgs.parse("batchSize=lots").getInt("batchSize", 3));
+    }
+
+    @Test
+    void testOfIsMemoized() {
+        assertSame(ProcessArgs.of("action=approve"), ProcessArgs.of("action=approve"));
+    }
+
+    @Test
+    void testNoAllocationAfterWarmUp() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+
+        String raw = "action=approve,batchSize=100";
+        for (int i = 0; i < 10_000; i++) {
+            ProcessArgs.of(raw);
+        }
+
+        int calls = 100_000;
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < calls; i++) {
+            ProcessArgs.of(raw);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // A single parse allocates several objects; allow only measurement noise across all calls
+        assertTrue(allocated < 1024, "Allocated " + allocated + " bytes for " + calls + " calls");
+    }
+}